@@ -1,11 +1,14 @@
 package org.hibernate.infra.replicate.jira;
 
 import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import io.quarkus.runtime.configuration.MemorySize;
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
 
@@ -100,6 +103,41 @@ public interface JiraConfig {
 		 */
 		EventProcessing processing();
 
+		/**
+		 * Configuration of the cache of the source issues, that lets the events of
+		 * the same issue share the issue fetched from the source Jira.
+		 */
+		IssueCache sourceIssueCache();
+
+		/**
+		 * Configuration of the index of the comments synced to the destination
+		 * issues, that lets the comment events find the destination comment without
+		 * going through all the comments of the issue.
+		 */
+		CommentIndex destinationCommentIndex();
+
+		/**
+		 * Configuration of the fingerprints of the issue updates sent to the
+		 * destination Jira, that let the sync skip the updates that would not change
+		 * anything.
+		 */
+		IssueFingerprints destinationIssueFingerprints();
+
+		/**
+		 * Configuration of the bulk sync jobs, i.e. the initial sync of a project and
+		 * the syncs by query, started through the management endpoints.
+		 */
+		SyncJobs syncJobs();
+
+		/**
+		 * Configuration of the stamps remembering, for each source issue, the
+		 * {@code updated} timestamp of the latest version that was upserted, so that
+		 * the scheduled sync and the sync jobs can skip the upserts of the issues that
+		 * were already synced, e.g. through the webhooks. Comments and links are
+		 * synced regardless.
+		 */
+		SyncedIssueStamps syncedIssueStamps();
+
 		/**
 		 * Allows customizing formatting options.
 		 */
@@ -140,29 +178,308 @@ public interface JiraConfig {
 		@WithDefault("10000")
 		int queueSize();
 
+		/**
+		 * Define the fraction of the {@link #queueSize() queue} that can be filled
+		 * with the events received through the webhooks. Once the queue is filled
+		 * above this mark, webhook events are refused with {@code 503 Service
+		 * Unavailable}, so that Jira delivers them again later, while the events
+		 * triggered internally (e.g. by the scheduled sync) are still accepted.
+		 */
+		@WithDefault("0.9")
+		double highWaterMark();
+
+		/**
+		 * Define how long Jira should wait before delivering the refused webhook
+		 * event again.
+		 *
+		 * @see #highWaterMark()
+		 */
+		@WithDefault("60s")
+		Duration retryAfter();
+
 		/**
 		 * Define the number of threads to use when processing queued events.
 		 * <p>
+		 * Each thread drains its own lane of events, and all events of the same issue
+		 * are always routed to the same lane. Hence, events of a single issue are
+		 * never processed concurrently and are applied in the order they were
+		 * received, while the events of unrelated issues can be processed in
+		 * parallel.
+		 * <p>
 		 * Note, having a lot of processing threads might not bring much benefit as
 		 * processing may also be limited by {@link JiraConfig.EventProcessing}
 		 */
 		@WithDefault("2")
 		int threads();
 
+		/**
+		 * Whether the queued events should be processed on virtual threads instead of
+		 * the {@link #threads() platform threads}.
+		 * <p>
+		 * Event handlers spend most of their time waiting for the responses of the
+		 * Jira REST API. With virtual threads, waiting is cheap, and the events can be
+		 * processed in many more {@link #virtualThreadLanes() lanes}, so that the
+		 * processing is limited by the rate limiter and by the events of the same
+		 * issue waiting for each other rather than by the number of threads.
+		 * <p>
+		 * Note, with a lot of lanes, the events of different
+		 * {@link org.hibernate.infra.replicate.jira.service.jira.EventPriority
+		 * priorities} rarely meet in the same lane, hence they are mostly prioritized
+		 * by the rate limiter, i.e. in the order they were queued.
+		 * <p>
+		 * If any of the project groups uses virtual threads, the management endpoints
+		 * are executed on virtual threads as well, rather than on the worker thread
+		 * pool.
+		 */
+		@WithDefault("false")
+		boolean virtualThreads();
+
+		/**
+		 * Define the number of lanes (virtual threads) to use when processing queued
+		 * events with {@link #virtualThreads() virtual threads}.
+		 */
+		@WithDefault("256")
+		int virtualThreadLanes();
+
 		/**
 		 * Defines how many events can be processed within the
 		 * {@link #timeframeInSeconds() timeframe}
+		 * <p>
+		 * Used to derive the {@link #sustainedRate()} and the {@link #burst()} if
+		 * those are not set explicitly.
 		 */
 		@WithDefault("5")
 		int eventsPerTimeframe();
 
 		/**
-		 * Define the duration of the timeframe. Each timeframe will allow to precess
-		 * the defined number of events and blocking any others to wait for the next
-		 * timeframe.
+		 * Define the duration of the timeframe.
+		 *
+		 * @see #eventsPerTimeframe()
 		 */
 		@WithDefault("2")
 		int timeframeInSeconds();
+
+		/**
+		 * Define how many events per second can be processed in the long run. Events
+		 * are let through evenly at this rate, rather than in batches at the start of
+		 * each timeframe.
+		 * <p>
+		 * Defaults to {@code eventsPerTimeframe / timeframeInSeconds}.
+		 */
+		Optional<Double> sustainedRate();
+
+		/**
+		 * Define how many events can be processed at once, without waiting, after the
+		 * processing was idle for a while.
+		 * <p>
+		 * Defaults to {@link #eventsPerTimeframe()}.
+		 */
+		Optional<Integer> burst();
+
+		/**
+		 * Configuration of the on-disk journal of the acknowledged events.
+		 */
+		Journal journal();
+
+		/**
+		 * Configuration of the queue of the events that failed to be processed.
+		 */
+		DeadLetters deadLetters();
+	}
+
+	interface DeadLetters {
+		/**
+		 * How many failed events to keep. Once the limit is reached, the oldest ones
+		 * are dropped.
+		 */
+		@WithDefault("1000")
+		int capacity();
+
+		/**
+		 * How many times a failed event is redelivered automatically. After that, the
+		 * event stays in the queue until it is replayed or purged through the
+		 * management endpoints.
+		 */
+		@WithDefault("3")
+		int redeliveries();
+
+		/**
+		 * The delay before the first automatic redelivery of a failed event. The delay
+		 * doubles with each next redelivery.
+		 */
+		@WithDefault("5m")
+		Duration redeliveryDelay();
+	}
+
+	interface Journal {
+		/**
+		 * Whether acknowledged events should be written to an on-disk journal before
+		 * they are queued for processing. Events that were not processed when the app
+		 * is stopped (e.g. on a pod restart during a large resync) are then replayed
+		 * on the next start instead of being lost.
+		 */
+		@WithDefault("false")
+		boolean enabled();
+
+		/**
+		 * The directory to store the journal in. Each project group gets its own
+		 * subdirectory. Make sure the directory is on a persistent volume, otherwise
+		 * the journal will not survive the restart.
+		 */
+		@WithDefault("journal")
+		Path directory();
+
+		/**
+		 * Size of a single journal segment file. Once a segment is full, a new one is
+		 * started, and the old ones are removed as soon as all their events are
+		 * processed.
+		 */
+		@WithDefault("8M")
+		MemorySize segmentSize();
+	}
+
+	interface IssueCache {
+		/**
+		 * Whether to cache the source issues. An issue is dropped from the cache when
+		 * a webhook event reports that it was updated after it was fetched.
+		 */
+		@WithDefault("true")
+		boolean enabled();
+
+		/**
+		 * How many issues to keep. Once the limit is reached, the least recently
+		 * used ones are dropped.
+		 */
+		@WithDefault("1000")
+		int maxSize();
+
+		/**
+		 * How long an issue is kept after it was fetched. Since the updates that do
+		 * not come through the webhooks cannot be noticed, keep it short.
+		 */
+		@WithDefault("1m")
+		Duration ttl();
+	}
+
+	interface CommentIndex {
+		/**
+		 * Whether to keep the index of the destination comments. When disabled, the
+		 * comments of the destination issue are fetched for each comment event.
+		 */
+		@WithDefault("true")
+		boolean enabled();
+
+		/**
+		 * For how many issues to keep the index. Once the limit is reached, the
+		 * indexes of the least recently used issues are dropped, and are rebuilt on
+		 * the next comment event of the issue.
+		 */
+		@WithDefault("1000")
+		int maxIssues();
+	}
+
+	interface IssueFingerprints {
+		/**
+		 * Whether to skip the update of a destination issue when the update would be
+		 * the same as the last one successfully sent for that issue.
+		 * <p>
+		 * Note that the changes made directly to the destination issue, e.g. to its
+		 * summary or description, are not reverted until the source issue changes.
+		 */
+		@WithDefault("true")
+		boolean enabled();
+
+		/**
+		 * For how many issues to keep the fingerprint of the last update. Once the
+		 * limit is reached, the least recently used ones are dropped.
+		 */
+		@WithDefault("10000")
+		int maxSize();
+	}
+
+	interface SyncJobs {
+		/**
+		 * How many issues to fetch from the source Jira at once, to start with. The
+		 * page size is then adjusted to how long the search takes, see
+		 * {@link #targetPageTime()}. Applies to the scheduled sync as well.
+		 */
+		@WithDefault("100")
+		int pageSize();
+
+		/**
+		 * The largest page size to ask for. Jira may return fewer issues than asked
+		 * for anyway, e.g. when all the fields are requested, in which case the page
+		 * size is not increased above that.
+		 */
+		@WithDefault("1000")
+		int maxPageSize();
+
+		/**
+		 * How long fetching a page of issues should take. The page size grows when
+		 * the pages come faster, and shrinks when they come slower.
+		 */
+		@WithDefault("2s")
+		Duration targetPageTime();
+
+		/**
+		 * How many pages of issues to fetch ahead, while the issues of the current
+		 * page are being queued. Set to {@code 0} to only fetch a page once the
+		 * previous one is done.
+		 */
+		@WithDefault("1")
+		int prefetchPages();
+
+		/**
+		 * The jobs wait before queueing more issues while the event queue is filled
+		 * above this ratio, so that there is always room left for the events coming
+		 * from the webhooks. The issues are then synced as fast as the event
+		 * processing (and its rate limits) allow.
+		 */
+		@WithDefault("0.5")
+		double maxQueueFillRatio();
+
+		/**
+		 * How long to wait before checking again whether there is room in the event
+		 * queue.
+		 */
+		@WithDefault("1s")
+		Duration queueCheckInterval();
+
+		/**
+		 * Whether the bulk sync jobs should store their progress on disk. A job that
+		 * is interrupted by a restart is then resumed from its last checkpoint on the
+		 * next start, instead of having to be started again from the beginning. The
+		 * watermarks of the scheduled sync are stored along with the checkpoints.
+		 */
+		@WithDefault("false")
+		boolean checkpoints();
+
+		/**
+		 * The directory to store the checkpoints in. Each project group gets its own
+		 * subdirectory. Make sure the directory is on a persistent volume, otherwise
+		 * the checkpoints will not survive the restart.
+		 */
+		@WithDefault("jobs")
+		Path directory();
+	}
+
+	interface SyncedIssueStamps {
+		/**
+		 * Whether the scheduled sync and the sync jobs should skip the source issues
+		 * that were not updated since they were last synced. If the
+		 * {@link SyncJobs#checkpoints() checkpoints} of the sync jobs are stored on
+		 * disk, the stamps are stored along with them on shutdown.
+		 */
+		@WithDefault("true")
+		boolean enabled();
+
+		/**
+		 * How many issues to keep the stamps for. Once the limit is reached, the
+		 * stamps of the least recently synced issues are dropped, and those issues
+		 * get synced again by the next sweep.
+		 */
+		@WithDefault("100000")
+		int maxSize();
 	}
 
 	interface Scheduled {
@@ -175,9 +492,20 @@ public interface JiraConfig {
 		 * Specify for how many tickets to look for. By default ({@code -1d} the tool
 		 * will take the tickets updated during the last 24 hours. See JQL to learn more
 		 * on possible query values for this filer.
+		 * <p>
+		 * Only used when the sync does not know yet up to when it has seen the updated
+		 * issues of the project, e.g. on its first run. Later runs only look for the
+		 * issues updated since the previous run.
 		 */
 		@WithDefault("-1d")
 		String timeFilter();
+
+		/**
+		 * How much further back than the previous run to look for the updated issues,
+		 * to make up for the delay before an update shows up in the search results.
+		 */
+		@WithDefault("5m")
+		Duration watermarkSkew();
 	}
 
 	interface JiraProject {
@@ -245,6 +573,15 @@ public interface JiraConfig {
 		 */
 		@WithDefault("false")
 		boolean logRequests();
+
+		/**
+		 * Whether to skip the properties of the issues that are not mapped to an issue
+		 * field while reading the Jira REST API responses, i.e. most of the custom
+		 * fields, rather than keeping them around until the issue is discarded. The
+		 * custom fields used by the sync, e.g. the epic ones, are kept regardless.
+		 */
+		@WithDefault("false")
+		boolean leanDeserialization();
 	}
 
 	interface JiraUser {
@@ -1,5 +1,6 @@
 package org.hibernate.infra.replicate.jira.resource;
 
+import org.hibernate.infra.replicate.jira.service.jira.EventQueueFullException;
 import org.hibernate.infra.replicate.jira.service.jira.JiraService;
 import org.hibernate.infra.replicate.jira.service.jira.model.action.JiraActionEvent;
 import org.hibernate.infra.replicate.jira.service.jira.model.hook.JiraWebHookEvent;
@@ -7,6 +8,8 @@ import org.hibernate.infra.replicate.jira.service.validation.ConfiguredProject;
 import org.hibernate.infra.replicate.jira.service.validation.ConfiguredProjectGroup;
 
 import org.jboss.resteasy.reactive.RestPath;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
 
 import io.quarkus.logging.Log;
 import jakarta.inject.Inject;
@@ -15,6 +18,7 @@ import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 
 @Path("/jira/webhooks")
@@ -42,4 +46,13 @@ public class JiraWebHookListenerResource {
 		jiraService.downstreamAcknowledge(projectGroup, data);
 		return "ack";
 	}
+
+	@ServerExceptionMapper
+	public RestResponse<String> eventQueueFull(EventQueueFullException exception) {
+		// Jira will deliver the event again, instead of giving up on the webhook:
+		Log.warnf("Refusing the event: %s", exception.getMessage());
+		return RestResponse.ResponseBuilder.<String> create(RestResponse.Status.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, exception.retryAfter().toSeconds())
+				.entity("Too many events are waiting to be processed, try again later").build();
+	}
 }
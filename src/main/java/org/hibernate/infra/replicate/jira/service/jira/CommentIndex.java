@@ -0,0 +1,85 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+
+/**
+ * Keeps track of which destination comment each synced source comment was
+ * copied to, per destination issue, so that a comment event does not have to
+ * fetch all the comments of the destination issue to find its copy.
+ * <p>
+ * The index of an issue is built from the comments of the destination issue the
+ * first time an event needs it, and is then kept up to date by the comment
+ * handlers as they create and delete the comments. Since the events of the same
+ * issue are never processed concurrently, the index of an issue is never
+ * modified by two events at once.
+ * <p>
+ * Changes made to the destination comments by anything else than the sync are
+ * not noticed. A handler that finds out that a comment from the index no longer
+ * exists should {@link #forget(String) forget} the index of the issue, so that it
+ * gets rebuilt.
+ */
+public final class CommentIndex {
+
+	private final JiraConfig.CommentIndex config;
+	private final Map<String, Map<String, String>> issues;
+
+	CommentIndex(JiraConfig.CommentIndex config) {
+		this.config = config;
+		this.issues = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Map<String, String>> eldest) {
+				return size() > config.maxIssues();
+			}
+		};
+	}
+
+	/**
+	 * @return the destination comment ids by the source comment id, if the
+	 *         comments of the issue were indexed already.
+	 */
+	public synchronized Optional<Map<String, String>> comments(String issueKey) {
+		return Optional.ofNullable(issues.get(issueKey)).map(Collections::unmodifiableMap);
+	}
+
+	/**
+	 * @param comments
+	 *            The destination comment ids by the source comment id, as found in
+	 *            the destination issue.
+	 * @return the indexed comments.
+	 */
+	public synchronized Map<String, String> index(String issueKey, Map<String, String> comments) {
+		Map<String, String> indexed = new ConcurrentHashMap<>(comments);
+		if (config.enabled()) {
+			issues.put(issueKey, indexed);
+		}
+		return Collections.unmodifiableMap(indexed);
+	}
+
+	public synchronized void added(String issueKey, String sourceCommentId, String destinationCommentId) {
+		Map<String, String> comments = issues.get(issueKey);
+		if (comments != null) {
+			comments.put(sourceCommentId, destinationCommentId);
+		}
+	}
+
+	public synchronized void removed(String issueKey, String sourceCommentId) {
+		Map<String, String> comments = issues.get(issueKey);
+		if (comments != null) {
+			comments.remove(sourceCommentId);
+		}
+	}
+
+	public synchronized void forget(String issueKey) {
+		issues.remove(issueKey);
+	}
+
+	public synchronized int size() {
+		return issues.size();
+	}
+}
@@ -0,0 +1,336 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestException;
+
+import io.quarkus.logging.Log;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Keeps the events that failed to be processed, so that only these events can
+ * be processed again, rather than resyncing entire projects to fix a few
+ * issues.
+ * <p>
+ * Failed events are redelivered automatically a few times, with a growing delay
+ * between the attempts, as long as the failure is {@link #isTransient(Throwable)
+ * transient}. Once they run out of the automatic redeliveries, or if the
+ * failure would only happen again, they stay in the queue until they are either
+ * replayed or purged manually.
+ * <p>
+ * The queue only keeps a {@link FailedEvent description} of the event, not the
+ * data the event was processed with.
+ */
+public final class DeadLetterQueue implements AutoCloseable {
+
+	private final String name;
+	private final JiraConfig.DeadLetters config;
+	private final ScheduledExecutorService scheduler;
+	private final Map<FailedEvent, Entry> entries = new ConcurrentHashMap<>();
+	private final AtomicLong ids = new AtomicLong();
+
+	DeadLetterQueue(String name, JiraConfig.DeadLetters config) {
+		this.name = name;
+		this.config = config;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name(name).factory());
+	}
+
+	/**
+	 * Adds a failed event to the queue, or records another failure if the event was
+	 * already there. If another event with the same description was in the queue,
+	 * it is superseded by this one.
+	 *
+	 * @param event
+	 *            The description of the event that failed.
+	 * @param failure
+	 *            The description of the failure.
+	 * @param transientFailure
+	 *            Whether the event may succeed if it is processed again later,
+	 *            see {@link #isTransient(Throwable)}. Only such events are
+	 *            redelivered automatically.
+	 * @param redelivery
+	 *            How to process the event again, the same instance for all the
+	 *            failures of the event.
+	 */
+	public void add(FailedEvent event, String failure, boolean transientFailure, Redelivery redelivery) {
+		AtomicReference<Entry> superseded = new AtomicReference<>();
+		Entry entry = entries.compute(event, (e, current) -> {
+			if (current != null && current.redelivery == redelivery) {
+				current.deliveries++;
+				return current;
+			}
+			superseded.set(current);
+			return new Entry(ids.incrementAndGet(), event, redelivery);
+		});
+		if (superseded.get() != null) {
+			supersede(superseded.get());
+		}
+		entry.failure = failure;
+		entry.transientFailure = transientFailure;
+		entry.failedAt = Instant.now();
+		Log.warnf("Event %s failed %d time(s) and was added to the dead-letter queue of %s: %s", event,
+				entry.deliveries, name, failure);
+		scheduleRedelivery(entry);
+		dropOldest();
+	}
+
+	/**
+	 * Removes the event from the queue once it was processed successfully, or was
+	 * superseded by a newer event for the same object.
+	 *
+	 * @param redelivery
+	 *            The redelivery of the event that was processed. If the queue
+	 *            holds another event with the same description, that one is
+	 *            superseded and discarded.
+	 */
+	public void delivered(FailedEvent event, Redelivery redelivery) {
+		Entry entry = entries.remove(event);
+		if (entry != null) {
+			cancelRedelivery(entry);
+			Log.infof("Event %s was removed from the dead-letter queue of %s", event, name);
+			if (entry.redelivery != redelivery) {
+				supersede(entry);
+			}
+		}
+	}
+
+	/**
+	 * @return whether the failure may go away by itself, e.g. because Jira was
+	 *         unavailable or has rate limited the calls, so that it is worth
+	 *         redelivering the event automatically. A request that Jira refuses,
+	 *         e.g. as invalid, would only fail again.
+	 */
+	public static boolean isTransient(Throwable failure) {
+		for (Throwable current = failure; current != null; current = current.getCause()) {
+			if (current instanceof JiraRestException e) {
+				return e.statusCode() == Response.Status.TOO_MANY_REQUESTS.getStatusCode()
+						|| e.statusCode() == Response.Status.REQUEST_TIMEOUT.getStatusCode()
+						|| Response.Status.Family.familyOf(e.statusCode()) == Response.Status.Family.SERVER_ERROR;
+			}
+			if (current instanceof ProcessingException || current instanceof IOException
+					|| current instanceof TimeoutException || current instanceof InterruptedException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public List<DeadLetter> list() {
+		return entries.values().stream().map(Entry::toDeadLetter).sorted(Comparator.comparing(DeadLetter::id))
+				.toList();
+	}
+
+	/**
+	 * Puts the event back to the processing queue right away.
+	 *
+	 * @return {@code true} if the event was found in the queue.
+	 */
+	public boolean replay(long id) {
+		Entry entry = find(id);
+		if (entry == null) {
+			return false;
+		}
+		redeliver(entry);
+		return true;
+	}
+
+	public int replayAll() {
+		List<Entry> all = List.copyOf(entries.values());
+		all.forEach(this::redeliver);
+		return all.size();
+	}
+
+	/**
+	 * Removes the event from the queue without processing it.
+	 *
+	 * @return {@code true} if the event was found in the queue.
+	 */
+	public boolean purge(long id) {
+		Entry entry = find(id);
+		if (entry == null) {
+			return false;
+		}
+		discard(entry);
+		return true;
+	}
+
+	public int purgeAll() {
+		List<Entry> all = List.copyOf(entries.values());
+		all.forEach(this::discard);
+		return all.size();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private Entry find(long id) {
+		for (Entry entry : entries.values()) {
+			if (entry.id == id) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	private void scheduleRedelivery(Entry entry) {
+		cancelRedelivery(entry);
+		if (!entry.transientFailure) {
+			Log.warnf("Event %s failed with a problem that would only happen again and will stay in the dead-letter"
+					+ " queue of %s until it is replayed or purged", entry.event, name);
+			return;
+		}
+		if (entry.deliveries > config.redeliveries()) {
+			Log.warnf("Event %s has no automatic redeliveries left and will stay in the dead-letter queue of %s",
+					entry.event, name);
+			return;
+		}
+		// the delay doubles with each redelivery:
+		Duration delay = config.redeliveryDelay().multipliedBy(1L << Math.min(entry.deliveries - 1, 20));
+		entry.nextRedeliveryAt = Instant.now().plus(delay);
+		try {
+			entry.scheduledRedelivery = scheduler.schedule(() -> redeliver(entry), delay.toMillis(),
+					TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// shutting down, the event stays in the queue
+			entry.nextRedeliveryAt = null;
+		}
+	}
+
+	private void redeliver(Entry entry) {
+		cancelRedelivery(entry);
+		Log.infof("Redelivering event %s from the dead-letter queue of %s", entry.event, name);
+		try {
+			entry.redelivery.redeliver().run();
+		} catch (RejectedExecutionException e) {
+			Log.warnf("Unable to redeliver event %s from the dead-letter queue of %s: %s", entry.event, name,
+					e.getMessage());
+			scheduleRedelivery(entry);
+		}
+	}
+
+	private void discard(Entry entry) {
+		if (entries.remove(entry.event, entry)) {
+			cancelRedelivery(entry);
+			Log.infof("Event %s was removed from the dead-letter queue of %s without being processed", entry.event,
+					name);
+			entry.redelivery.discard();
+		}
+	}
+
+	private void supersede(Entry entry) {
+		cancelRedelivery(entry);
+		Log.infof("Event %s in the dead-letter queue of %s was superseded by a newer one", entry.event, name);
+		entry.redelivery.discard();
+	}
+
+	private void dropOldest() {
+		while (entries.size() > config.capacity()) {
+			entries.values().stream().min(Comparator.comparing(e -> e.id)).ifPresent(oldest -> {
+				Log.warnf("Dead-letter queue of %s is full, dropping the event %s", name, oldest.event);
+				discard(oldest);
+			});
+		}
+	}
+
+	private static void cancelRedelivery(Entry entry) {
+		ScheduledFuture<?> redelivery = entry.scheduledRedelivery;
+		if (redelivery != null) {
+			redelivery.cancel(false);
+			entry.scheduledRedelivery = null;
+		}
+		entry.nextRedeliveryAt = null;
+	}
+
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+
+	/**
+	 * Describes a failed event.
+	 *
+	 * @param type
+	 *            The kind of the event, e.g. the handler type.
+	 * @param key
+	 *            The id or key of the object the event is about.
+	 */
+	public record FailedEvent(String type, Object key, String projectGroup) {
+		@Override
+		public String toString() {
+			return type + "[key=" + key + ", projectGroup=" + projectGroup + ']';
+		}
+	}
+
+	/**
+	 * @param redeliver
+	 *            Puts the event back to the processing queue.
+	 * @param onDiscard
+	 *            Called when the event is removed from the queue without being
+	 *            processed successfully, i.e. when it is purged, dropped, or
+	 *            superseded by another event with the same description.
+	 *            {@code null} if there is nothing to release in that case.
+	 */
+	public record Redelivery(Runnable redeliver, Runnable onDiscard) {
+		public Redelivery(Runnable redeliver) {
+			this(redeliver, null);
+		}
+
+		private void discard() {
+			if (onDiscard != null) {
+				onDiscard.run();
+			}
+		}
+	}
+
+	/**
+	 * @param deliveries
+	 *            How many times the event was processed and failed.
+	 * @param nextRedeliveryAt
+	 *            When the event is going to be redelivered automatically,
+	 *            {@code null} if it was already redelivered and is waiting in the
+	 *            processing queue, or if it has no automatic redeliveries left.
+	 */
+	public record DeadLetter(long id, String type, String key, String failure, boolean transientFailure,
+			int deliveries, Instant failedAt, Instant nextRedeliveryAt) {
+	}
+
+	private static final class Entry {
+		private final long id;
+		private final FailedEvent event;
+		private final Redelivery redelivery;
+		private volatile int deliveries = 1;
+		private volatile String failure;
+		private volatile boolean transientFailure;
+		private volatile Instant failedAt;
+		private volatile Instant nextRedeliveryAt;
+		private volatile ScheduledFuture<?> scheduledRedelivery;
+
+		private Entry(long id, FailedEvent event, Redelivery redelivery) {
+			this.id = id;
+			this.event = event;
+			this.redelivery = redelivery;
+		}
+
+		private DeadLetter toDeadLetter() {
+			return new DeadLetter(id, event.type(), String.valueOf(event.key()), failure, transientFailure,
+					deliveries, failedAt, nextRedeliveryAt);
+		}
+	}
+}
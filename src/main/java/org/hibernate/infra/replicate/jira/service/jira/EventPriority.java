@@ -0,0 +1,40 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+/**
+ * Defines how urgent the processing of an event is. The objects (e.g. issues)
+ * with events waiting are picked in a weighted round-robin fashion by the
+ * priority of their most urgent event: e.g. for each bulk event, up to eight
+ * interactive ones can be processed. This way the events that users are waiting
+ * for are not stuck behind a large resync, while the resync still makes
+ * progress. The events of the same object are still processed in the order they
+ * were received.
+ */
+public enum EventPriority {
+	/**
+	 * Events received through the webhooks, i.e. somebody has just changed
+	 * something in Jira.
+	 */
+	INTERACTIVE(8),
+	/**
+	 * Resync of a single issue, requested manually.
+	 */
+	MANUAL(4),
+	/**
+	 * Events of the scheduled sync of the recently updated issues.
+	 */
+	SCHEDULED(2),
+	/**
+	 * Events of the jobs that sync a large number of issues, e.g. by a query.
+	 */
+	BULK(1);
+
+	private final int weight;
+
+	EventPriority(int weight) {
+		this.weight = weight;
+	}
+
+	public int weight() {
+		return weight;
+	}
+}
@@ -0,0 +1,21 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.time.Duration;
+
+/**
+ * Thrown when an incoming event cannot be accepted, because too many events are
+ * already waiting to be processed. The sender is expected to deliver the event
+ * again later.
+ */
+public class EventQueueFullException extends RuntimeException {
+	private final Duration retryAfter;
+
+	public EventQueueFullException(String message, Duration retryAfter) {
+		super(message);
+		this.retryAfter = retryAfter;
+	}
+
+	public Duration retryAfter() {
+		return retryAfter;
+	}
+}
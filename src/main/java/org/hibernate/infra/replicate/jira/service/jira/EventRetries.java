@@ -0,0 +1,99 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Keeps the events that failed with a retryable problem until they are due for
+ * the next attempt, and then puts them back to the event queue. This way the
+ * event processing threads are free to handle other events in the meantime.
+ */
+public final class EventRetries implements AutoCloseable {
+
+	/**
+	 * How many times in total an event is attempted before giving up.
+	 */
+	public static final int MAX_ATTEMPTS = 5;
+	private static final Duration BASE_DELAY = Duration.ofSeconds(2);
+	private static final Duration MAX_DELAY = Duration.ofMinutes(5);
+
+	private final String name;
+	private final ScheduledExecutorService scheduler;
+	private final Map<Object, Retry> scheduled = new ConcurrentHashMap<>();
+
+	EventRetries(String name) {
+		this.name = name;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name(name).factory());
+	}
+
+	/**
+	 * @param event
+	 *            The event to retry, only used to keep track of the scheduled
+	 *            retries.
+	 * @param attempt
+	 *            The number of attempts that already failed.
+	 * @param failure
+	 *            The reason of the failure.
+	 * @param resubmit
+	 *            Puts the event back to the queue once it is due.
+	 * @throws java.util.concurrent.RejectedExecutionException
+	 *             if the retries are no longer accepted, as the app is shutting
+	 *             down.
+	 */
+	public void schedule(Object event, int attempt, Exception failure, Runnable resubmit) {
+		Duration delay = delay(attempt);
+		Retry retry = new Retry(event.toString(), attempt, Instant.now().plus(delay), failure.getMessage());
+		Log.infof("Will retry %s in %s (attempt %d of %d) after failure: %s", event, delay, attempt + 1, MAX_ATTEMPTS,
+				failure.getMessage());
+		scheduled.put(event, retry);
+		try {
+			scheduler.schedule(() -> {
+				scheduled.remove(event, retry);
+				resubmit.run();
+			}, delay.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (RuntimeException e) {
+			scheduled.remove(event, retry);
+			throw e;
+		}
+	}
+
+	/**
+	 * Exponential backoff with "equal jitter": the delay doubles with each attempt,
+	 * and half of it is random, so that the events that failed together do not
+	 * come back at the same time.
+	 */
+	static Duration delay(int attempt) {
+		long delay = Math.min(MAX_DELAY.toMillis(), BASE_DELAY.toMillis() << Math.min(attempt - 1, 20));
+		return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+	}
+
+	/**
+	 * @return the events waiting for their next attempt, ordered by the due time.
+	 */
+	public List<Retry> scheduled() {
+		return scheduled.values().stream().sorted(Comparator.comparing(Retry::dueAt)).toList();
+	}
+
+	@Override
+	public void close() {
+		// events that are waiting for a retry are dropped, but they remain in the
+		// journal (if enabled) and will be replayed on the next start:
+		List<Runnable> dropped = scheduler.shutdownNow();
+		if (!dropped.isEmpty()) {
+			Log.warnf("%d events waiting for a retry in %s were dropped on shutdown", dropped.size(), name);
+		}
+	}
+
+	public record Retry(String event, int attempt, Instant dueAt, String failure) {
+	}
+}
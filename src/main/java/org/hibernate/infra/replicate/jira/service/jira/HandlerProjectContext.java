@@ -11,6 +11,7 @@ import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.service.jira.client.DeferredRetryException;
 import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestClient;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraFields;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
@@ -98,20 +99,27 @@ public final class HandlerProjectContext implements AutoCloseable {
 		}
 	}
 
-	public Optional<JiraIssue> getNextIssueToSync(Long latestSyncedJiraIssueKeyNumber) {
-		String query;
+	/**
+	 * @return the next page of the source issues following the given issue key
+	 *         number, ordered by their key.
+	 */
+	public JiraIssues issuesToSync(Long latestSyncedJiraIssueKeyNumber, String nextPageToken, int pageSize,
+			List<String> fields) {
+		return projectGroupContext.sourceJiraClient().find(
+				issuesToSyncQuery(latestSyncedJiraIssueKeyNumber) + " ORDER BY key ASC", nextPageToken, pageSize,
+				fields);
+	}
+
+	/**
+	 * @return the query matching the source issues following the given issue key
+	 *         number, without any ordering.
+	 */
+	public String issuesToSyncQuery(Long latestSyncedJiraIssueKeyNumber) {
 		if (latestSyncedJiraIssueKeyNumber > 0) {
-			query = "project = %s and key > %s-%s ORDER BY key ASC".formatted(project.originalProjectKey(),
-					project.originalProjectKey(), latestSyncedJiraIssueKeyNumber);
-		} else {
-			query = "project = %s ORDER BY key ASC".formatted(project.originalProjectKey(),
-					project.originalProjectKey());
-		}
-		JiraIssues issues = projectGroupContext.sourceJiraClient().find(query, null, 1, List.of("key", "issuelinks"));
-		if (issues.issues.isEmpty()) {
-			return Optional.empty();
+			return "project = %s and key > %s-%s".formatted(project.originalProjectKey(), project.originalProjectKey(),
+					latestSyncedJiraIssueKeyNumber);
 		} else {
-			return Optional.of(issues.issues.get(0));
+			return "project = %s".formatted(project.originalProjectKey());
 		}
 	}
 
@@ -124,6 +132,9 @@ public final class HandlerProjectContext implements AutoCloseable {
 			} else {
 				return JiraIssue.keyToLong(issues.issues.get(0).key);
 			}
+		} catch (DeferredRetryException e) {
+			// let the event handler retry the entire event later:
+			throw e;
 		} catch (Exception e) {
 			Log.warn("Couldn't get the latest Jira issue key number", e);
 			return -1L;
@@ -144,10 +155,12 @@ public final class HandlerProjectContext implements AutoCloseable {
 			return;
 		}
 		lock.lock();
-		if (requiredIssueKeyNumberShouldBeAvailable(upToKeyNumber)) {
-			return;
-		}
 		try {
+			// another thread may have created the placeholders while we were waiting for
+			// the lock:
+			if (requiredIssueKeyNumberShouldBeAvailable(upToKeyNumber)) {
+				return;
+			}
 			do {
 				JiraIssueBulkResponse response = projectGroupContext.destinationJiraClient().create(bulk);
 				response.issues.stream().mapToLong(i -> JiraIssue.keyToLong(i.key)).max()
@@ -241,6 +254,9 @@ public final class HandlerProjectContext implements AutoCloseable {
 				return destFixVersions.computeIfAbsent(version.name, name -> upsert(project, projectGroupContext,
 						projectGroupContext.destinationJiraClient(), version, List.of()));
 			}
+		} catch (DeferredRetryException e) {
+			// let the event handler retry the entire event later:
+			throw e;
 		} catch (Exception e) {
 			Log.errorf(e,
 					"Couldn't create a copy of the fix version %s, version will not be synced for a particular Jira ticket.",
@@ -310,6 +326,9 @@ public final class HandlerProjectContext implements AutoCloseable {
 		} catch (InterruptedException e) {
 			Log.error("Interrupted while trying to process fix version", e);
 			Thread.currentThread().interrupt();
+		} catch (DeferredRetryException e) {
+			// let the event handler retry the entire event later:
+			throw e;
 		} catch (Exception e) {
 			Log.errorf(e, "Ignoring fix version sync. Unable to process fix %s version for project %s: %s",
 					upstreamVersion.name, project.projectKey(), e.getMessage());
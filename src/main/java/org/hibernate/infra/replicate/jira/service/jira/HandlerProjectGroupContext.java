@@ -1,41 +1,51 @@
 package org.hibernate.infra.replicate.jira.service.jira;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 
 import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.service.jira.client.AdaptiveRateController;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestAsyncClient;
 import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestClient;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestClientBuilder;
+import org.hibernate.infra.replicate.jira.service.jira.handler.JiraEventHandler;
+import org.hibernate.infra.replicate.jira.service.jira.handler.action.JiraActionEventHandler;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraUser;
+import org.hibernate.infra.replicate.jira.service.journal.EventJournal;
 
 import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Uni;
 
 public final class HandlerProjectGroupContext implements AutoCloseable {
 
-	private final ExecutorService eventHandlingExecutor;
-	private final Supplier<Integer> workQueueSize;
+	private final KeyedEventExecutor eventHandlingExecutor;
+	private final Map<JiraEventHandler.CoalescingKey, PendingEvent> pendingEvents = new ConcurrentHashMap<>();
 
 	private final String projectGroupName;
 	private final JiraRestClient sourceJiraClient;
 	private final JiraRestClient destinationJiraClient;
-
-	private final ExecutorService downstreamEventHandlingExecutor;
-	private final Supplier<Integer> downstreamWorkQueueSize;
-	private final ScheduledExecutorService rateLimiterExecutor = Executors.newScheduledThreadPool(1);
-	private final Semaphore rateLimiter;
-	private final Semaphore downstreamRateLimiter;
+	private final JiraRestAsyncClient sourceJiraAsyncClient;
+	private final JiraRestAsyncClient destinationJiraAsyncClient;
+
+	private final KeyedEventExecutor downstreamEventHandlingExecutor;
+	private final TokenBucketRateLimiter rateLimiter;
+	private final TokenBucketRateLimiter downstreamRateLimiter;
+	private final AdaptiveRateController sourceRateController;
+	private final AdaptiveRateController destinationRateController;
 	private final JiraConfig.JiraProjectGroup projectGroup;
 	private final Map<String, String> invertedUsers;
 	private final Map<String, String> invertedStatuses;
@@ -43,33 +53,41 @@ public final class HandlerProjectGroupContext implements AutoCloseable {
 	private final Pattern sourceLabelPattern;
 	private final JiraUser notMappedAssignee;
 	private final DateTimeFormatter formatter;
+	private final EventJournal journal;
+	private final EventRetries retries;
+	private final DeadLetterQueue deadLetters;
+	private final IssueCache sourceIssueCache;
+	private final CommentIndex destinationCommentIndex;
+	private final IssueFingerprints destinationIssueFingerprints;
+	private final SyncJobs syncJobs;
+	private final SyncWatermarks syncWatermarks;
+	private final SyncedIssueStamps syncedIssueStamps;
 
 	public HandlerProjectGroupContext(String projectGroupName, JiraConfig.JiraProjectGroup projectGroup,
 			JiraRestClient source, JiraRestClient destination) {
+		this(projectGroupName, projectGroup, source, destination, JiraRestClientBuilder.async(source),
+				JiraRestClientBuilder.async(destination),
+				new AdaptiveRateController(projectGroup.source().apiUri().getHost()),
+				new AdaptiveRateController(projectGroup.destination().apiUri().getHost()));
+	}
+
+	public HandlerProjectGroupContext(String projectGroupName, JiraConfig.JiraProjectGroup projectGroup,
+			JiraRestClient source, JiraRestClient destination, JiraRestAsyncClient asyncSource,
+			JiraRestAsyncClient asyncDestination, AdaptiveRateController sourceRateController,
+			AdaptiveRateController destinationRateController) {
 		this.projectGroupName = projectGroupName;
 		this.projectGroup = projectGroup;
 
 		JiraConfig.EventProcessing processing = projectGroup.processing();
 
-		final int permits = processing.eventsPerTimeframe();
-		this.rateLimiter = new Semaphore(permits);
-		this.downstreamRateLimiter = new Semaphore(permits);
-		rateLimiterExecutor.scheduleAtFixedRate(() -> {
-			rateLimiter.drainPermits();
-			rateLimiter.release(permits);
-			downstreamRateLimiter.drainPermits();
-			downstreamRateLimiter.release(permits);
-		}, processing.timeframeInSeconds(), processing.timeframeInSeconds(), TimeUnit.SECONDS);
-
-		LinkedBlockingDeque<Runnable> workQueue = new LinkedBlockingDeque<>(processing.queueSize());
-		workQueueSize = workQueue::size;
-		eventHandlingExecutor = new ThreadPoolExecutor(processing.threads(), processing.threads(), 0L,
-				TimeUnit.MILLISECONDS, workQueue);
-
-		LinkedBlockingDeque<Runnable> downstreamWorkQueue = new LinkedBlockingDeque<>(processing.queueSize());
-		downstreamWorkQueueSize = downstreamWorkQueue::size;
-		downstreamEventHandlingExecutor = new ThreadPoolExecutor(processing.threads(), processing.threads(), 0L,
-				TimeUnit.MILLISECONDS, downstreamWorkQueue);
+		this.rateLimiter = createRateLimiter(processing);
+		this.downstreamRateLimiter = createRateLimiter(processing);
+		this.sourceRateController = sourceRateController;
+		this.destinationRateController = destinationRateController;
+
+		eventHandlingExecutor = createEventExecutor("jira-events-%s".formatted(projectGroupName), processing);
+		downstreamEventHandlingExecutor = createEventExecutor("jira-downstream-events-%s".formatted(projectGroupName),
+				processing);
 
 		this.invertedUsers = invert(projectGroup.users().mapping());
 		// use the explicit config if present, but fallback to the inverted map
@@ -78,6 +96,8 @@ public final class HandlerProjectGroupContext implements AutoCloseable {
 				.orElseGet(() -> invert(projectGroup.statuses().mapping()));
 		this.sourceJiraClient = source;
 		this.destinationJiraClient = destination;
+		this.sourceJiraAsyncClient = asyncSource;
+		this.destinationJiraAsyncClient = asyncDestination;
 
 		Map<String, HandlerProjectContext> projectContexts = new HashMap<>();
 
@@ -91,6 +111,31 @@ public final class HandlerProjectGroupContext implements AutoCloseable {
 
 		this.sourceLabelPattern = Pattern.compile(projectGroup().formatting().labelTemplate().formatted(".+"));
 		this.formatter = DateTimeFormatter.ofPattern(projectGroup().formatting().timestampFormat());
+		this.journal = EventJournal.create(processing.journal(), projectGroupName);
+		this.retries = new EventRetries("jira-retries-%s".formatted(projectGroupName));
+		this.deadLetters = new DeadLetterQueue("jira-dead-letters-%s".formatted(projectGroupName),
+				processing.deadLetters());
+		this.sourceIssueCache = new IssueCache(projectGroup.sourceIssueCache());
+		this.destinationCommentIndex = new CommentIndex(projectGroup.destinationCommentIndex());
+		this.destinationIssueFingerprints = new IssueFingerprints(projectGroup.destinationIssueFingerprints());
+		this.syncJobs = SyncJobs.create(projectGroup.syncJobs(), projectGroupName);
+		this.syncWatermarks = SyncWatermarks.create(projectGroup.syncJobs(), projectGroupName);
+		this.syncedIssueStamps = SyncedIssueStamps.create(projectGroup, projectGroupName);
+	}
+
+	private static TokenBucketRateLimiter createRateLimiter(JiraConfig.EventProcessing processing) {
+		double rate = processing.sustainedRate()
+				.orElseGet(() -> (double) processing.eventsPerTimeframe() / processing.timeframeInSeconds());
+		return new TokenBucketRateLimiter(rate, processing.burst().orElseGet(processing::eventsPerTimeframe));
+	}
+
+	private static KeyedEventExecutor createEventExecutor(String name, JiraConfig.EventProcessing processing) {
+		if (processing.virtualThreads()) {
+			return new KeyedEventExecutor(name, processing.virtualThreadLanes(), processing.queueSize(),
+					Thread.ofVirtual().name(name + "-", 0).factory());
+		}
+		return new KeyedEventExecutor(name, processing.threads(), processing.queueSize(),
+				Thread.ofPlatform().name(name + "-", 0).factory());
 	}
 
 	private static Map<String, String> invert(Map<String, String> map) {
@@ -102,11 +147,51 @@ public final class HandlerProjectGroupContext implements AutoCloseable {
 	}
 
 	public void startProcessingEvent() throws InterruptedException {
-		rateLimiter.acquire(1);
+		rateLimiter.acquire(awaitRateControllers());
 	}
 
 	public void startProcessingDownstreamEvent() throws InterruptedException {
-		downstreamRateLimiter.acquire(1);
+		downstreamRateLimiter.acquire(awaitRateControllers());
+	}
+
+	/**
+	 * Waits if any of the Jira instances asked us to pause the requests.
+	 *
+	 * @return the fraction of the configured rate at which the events can be
+	 *         processed right now, as handlers send requests to both instances, it
+	 *         is the one of the instance that is closest to its quota.
+	 */
+	private double awaitRateControllers() throws InterruptedException {
+		Duration pause = sourceRateController.pauseTime();
+		if (destinationRateController.pauseTime().compareTo(pause) > 0) {
+			pause = destinationRateController.pauseTime();
+		}
+		if (!pause.isZero()) {
+			Log.infof("Waiting for %s before processing the next event of %s as requested by Jira", pause,
+					projectGroupName);
+			Thread.sleep(pause);
+		}
+		return Math.min(sourceRateController.rateFactor(), destinationRateController.rateFactor());
+	}
+
+	public AdaptiveRateController sourceRateController() {
+		return sourceRateController;
+	}
+
+	public AdaptiveRateController destinationRateController() {
+		return destinationRateController;
+	}
+
+	/**
+	 * @return how long the next event would have to wait for the rate limiter
+	 *         before it can be processed.
+	 */
+	public Duration rateLimiterWaitTime() {
+		return rateLimiter.waitTime();
+	}
+
+	public Duration downstreamRateLimiterWaitTime() {
+		return downstreamRateLimiter.waitTime();
 	}
 
 	public String projectGroupName() {
@@ -117,20 +202,198 @@ public final class HandlerProjectGroupContext implements AutoCloseable {
 		return projectGroup;
 	}
 
+	public EventJournal journal() {
+		return journal;
+	}
+
+	public EventRetries retries() {
+		return retries;
+	}
+
+	public DeadLetterQueue deadLetters() {
+		return deadLetters;
+	}
+
 	public int pendingEventsInCurrentContext() {
-		return workQueueSize.get();
+		return eventHandlingExecutor.pending();
 	}
 
 	public int pendingDownstreamEventsInCurrentContext() {
-		return downstreamWorkQueueSize.get();
+		return downstreamEventHandlingExecutor.pending();
+	}
+
+	/**
+	 * @return how full the event queue is, from {@code 0.0} (empty) to {@code 1.0}
+	 *         (full).
+	 */
+	public double queueFillRatio() {
+		return fillRatio(eventHandlingExecutor);
+	}
+
+	public double downstreamQueueFillRatio() {
+		return fillRatio(downstreamEventHandlingExecutor);
+	}
+
+	/**
+	 * Checks whether there is still room for the events coming from outside, i.e.
+	 * the webhooks.
+	 *
+	 * @throws EventQueueFullException
+	 *             if the queue is filled above the high-water mark.
+	 */
+	public void admitEvent() {
+		admit(eventHandlingExecutor);
+	}
+
+	public void admitDownstreamEvent() {
+		admit(downstreamEventHandlingExecutor);
+	}
+
+	private void admit(KeyedEventExecutor executor) {
+		JiraConfig.EventProcessing processing = projectGroup.processing();
+		if (fillRatio(executor) >= processing.highWaterMark()) {
+			throw new EventQueueFullException("Too many events are waiting to be processed in %s: %d of %d"
+					.formatted(projectGroupName, executor.pending(), executor.capacity()), processing.retryAfter());
+		}
+	}
+
+	private static double fillRatio(KeyedEventExecutor executor) {
+		return (double) executor.pending() / executor.capacity();
 	}
 
 	public void submitTask(Runnable task) {
-		eventHandlingExecutor.submit(task);
+		submitTask(task, EventPriority.INTERACTIVE);
+	}
+
+	public void submitTask(Runnable task, EventPriority priority) {
+		submitTask(task, priority, false);
+	}
+
+	/**
+	 * Submits the handlers of one event, either all of them, or none if there is
+	 * not enough room in the queue for all of them. This way an event that was
+	 * refused is not partially processed, and then processed again once it is
+	 * delivered again.
+	 *
+	 * @throws RejectedExecutionException
+	 *             if none of the tasks were submitted, as there is not enough room
+	 *             in the queue.
+	 */
+	public void submitTasks(Collection<? extends Runnable> tasks, EventPriority priority) {
+		eventHandlingExecutor.reserve(tasks.size());
+		int unused = tasks.size();
+		try {
+			for (Runnable task : tasks) {
+				if (submitTask(task, priority, true)) {
+					unused--;
+				}
+			}
+		} finally {
+			// coalesced tasks do not take any room:
+			eventHandlingExecutor.release(unused);
+		}
+	}
+
+	/**
+	 * @return whether the task was queued, {@code false} if it was coalesced with
+	 *         one that is already waiting in the queue.
+	 */
+	private boolean submitTask(Runnable task, EventPriority priority, boolean reserved) {
+		if (task instanceof JiraEventHandler handler) {
+			return submitCoalescingTask(handler, priority,
+					(orderingKey, queued) -> eventHandlingExecutor.execute(orderingKey, priority, queued, reserved));
+		}
+		eventHandlingExecutor.execute(null, priority, task, reserved);
+		return true;
+	}
+
+	/**
+	 * Submits the handler again after a failed attempt. It goes ahead of the events
+	 * for the same object that were received in the meantime, so that these are
+	 * still applied after it.
+	 */
+	public void retryTask(JiraEventHandler handler) {
+		EventPriority priority = handler.priority();
+		submitCoalescingTask(handler, priority,
+				(orderingKey, queued) -> eventHandlingExecutor.executeFirst(orderingKey, priority, queued));
+	}
+
+	private boolean submitCoalescingTask(JiraEventHandler handler, EventPriority priority,
+			BiConsumer<Object, Runnable> executor) {
+		JiraEventHandler.CoalescingKey key = handler.coalescingKey();
+		handler.priority(priority);
+		PendingEvent created = new PendingEvent(handler, priority);
+		AtomicReference<JiraEventHandler> superseded = new AtomicReference<>();
+		// if there is an event with the same key already waiting in the queue,
+		// we fold the new one into it, and only the latest handler will be executed:
+		PendingEvent pending = pendingEvents.merge(key, created, (current, ignored) -> {
+			superseded.set(current.handler());
+			if (priority.compareTo(current.priority) < 0) {
+				// the new event is more urgent, so it should not wait in the queue of the
+				// pending one. The pending one will be skipped once its turn comes:
+				handler.takeOverCompletionListeners(current.handler());
+				return created;
+			}
+			return current.replace(handler);
+		});
+		if (superseded.get() != null) {
+			// a failed event that was redelivered is superseded by the new one. This may
+			// notify the listeners of the event, so it is kept out of the map update:
+			deadLetters.delivered(superseded.get().failedEvent(), superseded.get().redelivery());
+		}
+		if (pending != created) {
+			Log.debugf("Event %s is already waiting in the queue of %s, coalescing it with the pending one.", handler,
+					projectGroupName);
+			return false;
+		}
+		try {
+			// events for the same object (e.g. issue) go to the same lane, so that they are
+			// never processed concurrently and are applied in the order they were received:
+			executor.accept(handler.orderingKey(), () -> {
+				// once we start processing the event, any new event with the same key has to be
+				// queued again, as we may have already fetched the state of the object:
+				if (pendingEvents.remove(key, pending)) {
+					pending.handler().run();
+				}
+			});
+			return true;
+		} catch (RejectedExecutionException e) {
+			pendingEvents.remove(key, pending);
+			throw e;
+		}
 	}
 
 	public void submitDownstreamTask(Runnable task) {
-		downstreamEventHandlingExecutor.submit(task);
+		submitDownstreamTask(task, false);
+	}
+
+	/**
+	 * @see #submitTasks(Collection, EventPriority)
+	 */
+	public void submitDownstreamTasks(Collection<? extends Runnable> tasks) {
+		downstreamEventHandlingExecutor.reserve(tasks.size());
+		int unused = tasks.size();
+		try {
+			for (Runnable task : tasks) {
+				submitDownstreamTask(task, true);
+				unused--;
+			}
+		} finally {
+			downstreamEventHandlingExecutor.release(unused);
+		}
+	}
+
+	private void submitDownstreamTask(Runnable task, boolean reserved) {
+		downstreamEventHandlingExecutor.execute(
+				task instanceof JiraActionEventHandler handler ? handler.orderingKey() : null,
+				EventPriority.INTERACTIVE, task, reserved);
+	}
+
+	/**
+	 * @see #retryTask(JiraEventHandler)
+	 */
+	public void retryDownstreamTask(JiraActionEventHandler handler) {
+		downstreamEventHandlingExecutor.executeFirst(handler.orderingKey(), EventPriority.INTERACTIVE, handler);
 	}
 
 	public JiraRestClient sourceJiraClient() {
@@ -141,6 +404,66 @@ public final class HandlerProjectGroupContext implements AutoCloseable {
 		return destinationJiraClient;
 	}
 
+	public JiraRestAsyncClient sourceJiraAsyncClient() {
+		return sourceJiraAsyncClient;
+	}
+
+	public JiraRestAsyncClient destinationJiraAsyncClient() {
+		return destinationJiraAsyncClient;
+	}
+
+	/**
+	 * @return the source issue with all the fields, possibly the one recently
+	 *         fetched for another event of the same issue.
+	 */
+	public JiraIssue sourceIssue(Long id) {
+		return sourceIssueCache.get(id, null,
+				fields -> fields == null ? sourceJiraClient.getIssue(id) : sourceJiraClient.getIssue(id, fields));
+	}
+
+	/**
+	 * @return the source issue with (at least) the requested fields, possibly the
+	 *         one recently fetched for another event of the same issue.
+	 */
+	public JiraIssue sourceIssue(String key, List<String> fields) {
+		return sourceIssueCache.get(key, fields, requested -> requested == null
+				? sourceJiraClient.getIssue(key)
+				: sourceJiraClient.getIssue(key, requested));
+	}
+
+	/**
+	 * @see #sourceIssue(String, List)
+	 */
+	public Uni<JiraIssue> sourceIssueAsync(Long id, List<String> fields) {
+		return sourceIssueCache.getAsync(id, fields, requested -> requested == null
+				? sourceJiraAsyncClient.getIssue(id)
+				: sourceJiraAsyncClient.getIssue(id, requested));
+	}
+
+	public IssueCache sourceIssueCache() {
+		return sourceIssueCache;
+	}
+
+	public CommentIndex destinationCommentIndex() {
+		return destinationCommentIndex;
+	}
+
+	public IssueFingerprints destinationIssueFingerprints() {
+		return destinationIssueFingerprints;
+	}
+
+	public SyncJobs syncJobs() {
+		return syncJobs;
+	}
+
+	public SyncWatermarks syncWatermarks() {
+		return syncWatermarks;
+	}
+
+	public SyncedIssueStamps syncedIssueStamps() {
+		return syncedIssueStamps;
+	}
+
 	public HandlerProjectContext contextForProject(String project) {
 		HandlerProjectContext context = projectContexts.get(project);
 		if (context == null) {
@@ -182,16 +505,19 @@ public final class HandlerProjectGroupContext implements AutoCloseable {
 	@Override
 	public void close() {
 		projectContexts.values().forEach(HandlerProjectContext::close);
-		// when requesting to close the context we aren't expecting to process any other
-		// events hence there's no point in continuing "releasing" more "permits":
-		if (!rateLimiterExecutor.isShutdown()) {
-			rateLimiterExecutor.shutdownNow();
-		}
+		// no point in retrying events if we are not going to process them anymore:
+		retries.close();
+		deadLetters.close();
 		closeEventExecutor(eventHandlingExecutor);
 		closeEventExecutor(downstreamEventHandlingExecutor);
+		// anything that was not processed by now stays in the journal and will be
+		// replayed on the next start:
+		journal.close();
+		// the events are done by now, so are the stamps:
+		syncedIssueStamps.close();
 	}
 
-	private static void closeEventExecutor(ExecutorService executor) {
+	private static void closeEventExecutor(KeyedEventExecutor executor) {
 		if (!executor.isShutdown()) {
 			try {
 				executor.shutdown();
@@ -232,4 +558,27 @@ public final class HandlerProjectGroupContext implements AutoCloseable {
 		return time != null ? time.format(formatter) : "";
 	}
 
+	private static final class PendingEvent {
+		private final EventPriority priority;
+		private volatile JiraEventHandler handler;
+
+		private PendingEvent(JiraEventHandler handler, EventPriority priority) {
+			this.handler = handler;
+			this.priority = priority;
+		}
+
+		private PendingEvent replace(JiraEventHandler handler) {
+			// some handlers (e.g. the ones created while syncing by query) carry the state
+			// of an issue, hence we keep the latest one:
+			handler.takeOverCompletionListeners(this.handler);
+			handler.priority(priority);
+			this.handler = handler;
+			return this;
+		}
+
+		private JiraEventHandler handler() {
+			return handler;
+		}
+	}
+
 }
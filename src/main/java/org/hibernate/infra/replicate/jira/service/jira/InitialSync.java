@@ -0,0 +1,78 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
+
+/**
+ * Syncs all the issues of a project that were not synced yet, in the order of
+ * their keys.
+ * <p>
+ * The issues are fetched page by page, see {@link SearchPages}, the
+ * placeholders for the entire page are created at once, and then the issues
+ * are queued as bulk events. The events themselves are processed in parallel by
+ * the event processing, within its rate limits.
+ * <p>
+ * The cursor of the job is the number of the last queued issue key. It is what
+ * the job resumes from, rather than the last synced destination issue, since
+ * the placeholders of an entire page are there before all of its issues are
+ * queued.
+ */
+final class InitialSync extends SyncJob {
+
+	private final HandlerProjectContext projectContext;
+	private final List<String> fields;
+	private final Consumer<JiraIssue> sync;
+
+	/**
+	 * @param fields
+	 *            The fields of the source issues that the sync needs.
+	 * @param sync
+	 *            Queues the events to sync the issue.
+	 */
+	InitialSync(HandlerProjectGroupContext context, Checkpoint checkpoint, List<String> fields,
+			Consumer<JiraIssue> sync) {
+		super(context, checkpoint);
+		this.projectContext = context.contextForOriginalProjectKey(checkpoint.project());
+		this.fields = fields;
+		this.sync = sync;
+	}
+
+	@Override
+	protected void sync(Checkpoint from) throws InterruptedException {
+		long startAfter;
+		if (from.cursor() == null) {
+			startAfter = projectContext.getLargestSyncedJiraIssueKeyNumber();
+			// so that a resumed job does not start after the placeholders created by this
+			// one:
+			queued(Long.toString(startAfter), 0);
+			checkpoint();
+		} else {
+			startAfter = Long.parseLong(from.cursor());
+		}
+		expect(count(projectContext.issuesToSyncQuery(startAfter)));
+		try (SearchPages pages = SearchPages.of(config, null,
+				(token, pageSize) -> projectContext.issuesToSync(startAfter, token, pageSize, fields))) {
+			SearchPages.Page page;
+			while ((page = pages.next()) != null && !page.issues().issues.isEmpty()) {
+				List<JiraIssue> issues = page.issues().issues;
+				// the placeholders are created in bulk, rather than by each of the events
+				// competing for the same lock:
+				projectContext.createNextPlaceholderBatch(projectContext.toDestinationKey(issues.getLast().key));
+				try {
+					for (JiraIssue issue : issues) {
+						if (limitReached()) {
+							return;
+						}
+						awaitRoomInQueue();
+						sync.accept(issue);
+						queued(Long.toString(JiraIssue.keyToLong(issue.key)), 1);
+					}
+				} finally {
+					checkpoint();
+				}
+			}
+		}
+	}
+}
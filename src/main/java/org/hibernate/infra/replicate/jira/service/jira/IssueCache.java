@@ -0,0 +1,222 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Keeps the recently fetched source issues for a short time, so that the
+ * events of the same issue, e.g. an issue update followed by the updates of
+ * its comments, do not fetch the same issue over and over again.
+ * <p>
+ * The issues are fetched together with their {@code updated} timestamp, and
+ * are dropped from the cache as soon as a webhook event reports a newer update
+ * of the issue. Issues fetched with all the fields can be used for any
+ * requested subset of the fields. The cached issues are shared between the
+ * events, and should not be modified.
+ */
+public final class IssueCache {
+
+	private static final String UPDATED = "updated";
+
+	private final JiraConfig.IssueCache config;
+	private final Map<Long, Entry> entries;
+	private final Map<String, Long> ids = new HashMap<>();
+	// the latest reported update of the recently updated issues, so that an issue
+	// fetched before the update, but received after it, is not cached:
+	private final Map<Long, ZonedDateTime> updates;
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long invalidations;
+
+	IssueCache(JiraConfig.IssueCache config) {
+		this.config = config;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+				if (size() > config.maxSize()) {
+					ids.remove(eldest.getValue().key);
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+		this.updates = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, ZonedDateTime> eldest) {
+				return size() > config.maxSize();
+			}
+		};
+	}
+
+	/**
+	 * @param fields
+	 *            The fields the caller needs, {@code null} for all the fields.
+	 * @param fetch
+	 *            Fetches the issue with the given fields, {@code null} for all the
+	 *            fields.
+	 */
+	public JiraIssue get(Long id, List<String> fields, Function<List<String>, JiraIssue> fetch) {
+		if (!config.enabled()) {
+			return fetch.apply(fields);
+		}
+		JiraIssue issue = cached(id, fields);
+		if (issue != null) {
+			return issue;
+		}
+		issue = fetch.apply(withUpdated(fields));
+		put(issue, fields);
+		return issue;
+	}
+
+	/**
+	 * @see #get(Long, List, Function)
+	 */
+	public JiraIssue get(String key, List<String> fields, Function<List<String>, JiraIssue> fetch) {
+		if (!config.enabled()) {
+			return fetch.apply(fields);
+		}
+		JiraIssue issue = cached(key, fields);
+		if (issue != null) {
+			return issue;
+		}
+		issue = fetch.apply(withUpdated(fields));
+		put(issue, fields);
+		return issue;
+	}
+
+	/**
+	 * @see #get(Long, List, Function)
+	 */
+	public Uni<JiraIssue> getAsync(Long id, List<String> fields, Function<List<String>, Uni<JiraIssue>> fetch) {
+		if (!config.enabled()) {
+			return fetch.apply(fields);
+		}
+		return Uni.createFrom().deferred(() -> {
+			JiraIssue issue = cached(id, fields);
+			if (issue != null) {
+				return Uni.createFrom().item(issue);
+			}
+			return fetch.apply(withUpdated(fields)).invoke(fetched -> put(fetched, fields));
+		});
+	}
+
+	/**
+	 * Drops the issue from the cache if it was fetched before the reported
+	 * update.
+	 */
+	public synchronized void updated(Long id, String key, ZonedDateTime updated) {
+		if (id == null && key != null) {
+			id = ids.get(key);
+		}
+		if (id == null) {
+			return;
+		}
+		updates.merge(id, updated, (current, reported) -> reported.isAfter(current) ? reported : current);
+		Entry entry = entries.get(id);
+		if (entry != null && (entry.updated == null || updated.isAfter(entry.updated))) {
+			remove(id, entry);
+			invalidations++;
+		}
+	}
+
+	public synchronized Stats stats() {
+		return new Stats(entries.size(), hits, misses, evictions, invalidations);
+	}
+
+	private synchronized JiraIssue cached(Object idOrKey, List<String> fields) {
+		Long id = idOrKey instanceof Long value ? value : ids.get(idOrKey);
+		Entry entry = id == null ? null : entries.get(id);
+		if (entry != null && entry.fetchedAt.plus(config.ttl()).isBefore(Instant.now())) {
+			remove(id, entry);
+			evictions++;
+			entry = null;
+		}
+		JiraIssue issue = entry == null ? null : entry.issue(fields);
+		if (issue == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return issue;
+	}
+
+	private synchronized void put(JiraIssue issue, List<String> fields) {
+		if (issue == null || issue.id == null || issue.fields == null) {
+			return;
+		}
+		ZonedDateTime updated = issue.fields.updated;
+		ZonedDateTime reported = updates.get(issue.id);
+		if (reported != null && (updated == null || reported.isAfter(updated))) {
+			// fetched before the latest update, so it is already outdated:
+			return;
+		}
+		Entry entry = entries.get(issue.id);
+		if (entry != null && entry.newerThan(updated)) {
+			return;
+		}
+		if (entry == null || !entry.sameVersion(updated)) {
+			entry = new Entry(issue.key, updated);
+			entries.put(issue.id, entry);
+		}
+		if (issue.key != null) {
+			ids.put(issue.key, issue.id);
+		}
+		entry.projections.put(fields, issue);
+	}
+
+	private void remove(Long id, Entry entry) {
+		entries.remove(id);
+		ids.remove(entry.key, id);
+	}
+
+	private static List<String> withUpdated(List<String> fields) {
+		if (fields == null || fields.contains(UPDATED)) {
+			return fields;
+		}
+		List<String> withUpdated = new ArrayList<>(fields);
+		withUpdated.add(UPDATED);
+		return withUpdated;
+	}
+
+	public record Stats(int size, long hits, long misses, long evictions, long invalidations) {
+	}
+
+	private static final class Entry {
+		private final String key;
+		private final ZonedDateTime updated;
+		private final Instant fetchedAt = Instant.now();
+		// the fetched subsets of the issue fields, null key for all the fields:
+		private final Map<List<String>, JiraIssue> projections = new HashMap<>();
+
+		private Entry(String key, ZonedDateTime updated) {
+			this.key = key;
+			this.updated = updated;
+		}
+
+		private boolean sameVersion(ZonedDateTime updated) {
+			return this.updated != null && updated != null && this.updated.isEqual(updated);
+		}
+
+		private boolean newerThan(ZonedDateTime updated) {
+			return this.updated != null && updated != null && this.updated.isAfter(updated);
+		}
+
+		private JiraIssue issue(List<String> fields) {
+			JiraIssue issue = projections.get(fields);
+			return issue == null ? projections.get(null) : issue;
+		}
+	}
+}
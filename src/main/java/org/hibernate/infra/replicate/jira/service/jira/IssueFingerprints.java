@@ -0,0 +1,74 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestClient;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Remembers a fingerprint of the last update successfully sent for each
+ * destination issue, so that the updates that are the same as the last one,
+ * e.g. the ones sent by the scheduled sync for the issues that did not change,
+ * can be skipped.
+ * <p>
+ * The fingerprint is a hash of the update body, serialized the same way the
+ * REST client does it, but with the properties in a stable order.
+ */
+public final class IssueFingerprints {
+
+	private static final ObjectMapper MAPPER = JiraRestClient
+			.objectMapper(JsonMapper.builder().findAndAddModules()
+					.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+					.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true).build());
+
+	private final JiraConfig.IssueFingerprints config;
+	private final Map<String, String> fingerprints;
+
+	IssueFingerprints(JiraConfig.IssueFingerprints config) {
+		this.config = config;
+		this.fingerprints = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+				return size() > config.maxSize();
+			}
+		};
+	}
+
+	public static String fingerprint(JiraIssue issue) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(MAPPER.writeValueAsBytes(issue)));
+		} catch (NoSuchAlgorithmException | JsonProcessingException e) {
+			throw new IllegalStateException("Unable to compute the fingerprint of the issue: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @return {@code true} if the last update successfully sent for the issue had
+	 *         the same fingerprint, i.e. the update can be skipped.
+	 */
+	public synchronized boolean unchanged(String issueKey, String fingerprint) {
+		return config.enabled() && fingerprint.equals(fingerprints.get(issueKey));
+	}
+
+	public synchronized void written(String issueKey, String fingerprint) {
+		if (config.enabled()) {
+			fingerprints.put(issueKey, fingerprint);
+		}
+	}
+
+	public synchronized void forget(String issueKey) {
+		fingerprints.remove(issueKey);
+	}
+}
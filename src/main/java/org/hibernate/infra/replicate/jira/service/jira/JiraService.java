@@ -1,19 +1,29 @@
 package org.hibernate.infra.replicate.jira.service.jira;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 
 import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.service.jira.client.AdaptiveRateController;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestAsyncClient;
 import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestClient;
 import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestClientBuilder;
+import org.hibernate.infra.replicate.jira.service.jira.client.LeanDeserialization;
+import org.hibernate.infra.replicate.jira.service.jira.handler.JiraEventHandler;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraIssueDeleteEventHandler;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraIssueSimpleUpsertEventHandler;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraIssueTransitionOnlyEventHandler;
@@ -21,20 +31,22 @@ import org.hibernate.infra.replicate.jira.service.jira.model.action.JiraActionEv
 import org.hibernate.infra.replicate.jira.service.jira.model.hook.JiraWebHookEvent;
 import org.hibernate.infra.replicate.jira.service.jira.model.hook.JiraWebHookIssue;
 import org.hibernate.infra.replicate.jira.service.jira.model.hook.JiraWebHookIssueLink;
-import org.hibernate.infra.replicate.jira.service.jira.model.hook.JiraWebHookObject;
 import org.hibernate.infra.replicate.jira.service.jira.model.hook.JiraWebhookEventType;
-import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComment;
-import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComments;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueLink;
-import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssues;
+import org.hibernate.infra.replicate.jira.service.journal.EventJournal;
 import org.hibernate.infra.replicate.jira.service.reporting.FailureCollector;
 import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import io.quarkus.logging.Log;
 import io.quarkus.scheduler.Scheduled;
 import io.quarkus.scheduler.Scheduler;
 import io.quarkus.vertx.http.ManagementInterface;
+import io.vertx.core.Handler;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.RoutingContext;
 import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
@@ -45,20 +57,45 @@ import jakarta.validation.ConstraintViolationException;
 public class JiraService {
 
 	private static final String SYSTEM_USER = "94KJcxFzgxZlXyTss4oR0rDNqtjwjhIiZLzYNx0Mwuc=";
+	// sync events are generated from the issue id/key (always returned) and its
+	// links, the comments are fetched by the handler that syncs them. The updated
+	// timestamp tells whether the issue needs to be synced at all:
+	private static final List<String> SYNC_EVENT_FIELDS = List.of("issuelinks", "updated");
 
 	private final ReportingConfig reportingConfig;
 	private final Map<String, HandlerProjectGroupContext> contextPerProjectGroup;
 	private final JiraConfig jiraConfig;
-	private final Scheduler scheduler;
+	private final ObjectMapper journalMapper;
+	private final ExecutorService managementExecutor;
+	// long-running jobs started through the management endpoints:
+	private final ExecutorService jobExecutor = Executors
+			.newThreadPerTaskExecutor(Thread.ofVirtual().name("jira-job-", 0).factory());
 
 	@Inject
-	public JiraService(JiraConfig jiraConfig, ReportingConfig reportingConfig, Scheduler scheduler) {
+	public JiraService(JiraConfig jiraConfig, ReportingConfig reportingConfig, Scheduler scheduler,
+			ObjectMapper objectMapper) {
 		Map<String, HandlerProjectGroupContext> contextMap = new HashMap<>();
+		// rate limits are per Jira instance, and multiple project groups can share the
+		// same instance:
+		Map<URI, AdaptiveRateController> rateControllers = new HashMap<>();
 		for (var entry : jiraConfig.projectGroup().entrySet()) {
-			JiraRestClient source = JiraRestClientBuilder.of(entry.getValue().source());
-			JiraRestClient destination = JiraRestClientBuilder.of(entry.getValue().destination());
+			AdaptiveRateController sourceRateController = rateController(rateControllers, entry.getValue().source());
+			AdaptiveRateController destinationRateController = rateController(rateControllers,
+					entry.getValue().destination());
+			ObjectMapper sourceMapper = clientObjectMapper(objectMapper, entry.getValue().source(), entry.getValue());
+			ObjectMapper destinationMapper = clientObjectMapper(objectMapper, entry.getValue().destination(),
+					entry.getValue());
+			JiraRestClient source = JiraRestClientBuilder.of(entry.getValue().source(), sourceRateController,
+					sourceMapper);
+			JiraRestClient destination = JiraRestClientBuilder.of(entry.getValue().destination(),
+					destinationRateController, destinationMapper);
+			JiraRestAsyncClient asyncSource = JiraRestClientBuilder.async(entry.getValue().source(),
+					sourceRateController, sourceMapper);
+			JiraRestAsyncClient asyncDestination = JiraRestClientBuilder.async(entry.getValue().destination(),
+					destinationRateController, destinationMapper);
 			HandlerProjectGroupContext groupContext = new HandlerProjectGroupContext(entry.getKey(), entry.getValue(),
-					source, destination);
+					source, destination, asyncSource, asyncDestination, sourceRateController,
+					destinationRateController);
 			contextMap.put(entry.getKey(), groupContext);
 		}
 
@@ -67,7 +104,54 @@ public class JiraService {
 
 		configureScheduledTasks(scheduler, jiraConfig);
 		this.jiraConfig = jiraConfig;
-		this.scheduler = scheduler;
+		this.journalMapper = JournaledEvent.mapper(objectMapper);
+		// management endpoints wait for the Jira REST API as much as the event
+		// handlers, so they follow the event processing:
+		this.managementExecutor = jiraConfig.projectGroup().values().stream()
+				.anyMatch(group -> group.processing().virtualThreads())
+						? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("jira-management-", 0).factory())
+						: null;
+
+		for (HandlerProjectGroupContext context : contextPerProjectGroup.values()) {
+			replayJournaledEvents(context);
+			resumeSyncJobs(context);
+		}
+	}
+
+	private static AdaptiveRateController rateController(Map<URI, AdaptiveRateController> rateControllers,
+			JiraConfig.Instance instance) {
+		return rateControllers.computeIfAbsent(instance.apiUri(), uri -> new AdaptiveRateController(uri.getHost()));
+	}
+
+	private static ObjectMapper clientObjectMapper(ObjectMapper objectMapper, JiraConfig.Instance instance,
+			JiraConfig.JiraProjectGroup group) {
+		ObjectMapper clientObjectMapper = JiraRestClient.objectMapper(objectMapper);
+		return instance.leanDeserialization()
+				? LeanDeserialization.objectMapper(clientObjectMapper,
+						LeanDeserialization.keptIssueProperties(group.issueTypes()))
+				: clientObjectMapper;
+	}
+
+	/**
+	 * Registers a management route that is allowed to block, either on the worker
+	 * thread pool or on a virtual thread, depending on the
+	 * {@link JiraConfig.EventProcessing#virtualThreads() configuration}. Unlike
+	 * the worker thread pool, virtual threads do not execute the blocking routes
+	 * one after another.
+	 */
+	private void route(ManagementInterface mi, String path, Handler<RoutingContext> handler) {
+		Route route = mi.router().get(path);
+		if (managementExecutor == null) {
+			route.blockingHandler(handler);
+			return;
+		}
+		route.handler(rc -> managementExecutor.execute(() -> {
+			try {
+				handler.handle(rc);
+			} catch (RuntimeException e) {
+				rc.fail(e);
+			}
+		}));
 	}
 
 	private void configureScheduledTasks(Scheduler scheduler, JiraConfig jiraConfig) {
@@ -81,15 +165,13 @@ public class JiraService {
 	}
 
 	public void registerManagementRoutes(@Observes ManagementInterface mi) {
-		mi.router().get("/sync/issues/init/:projectGroup/:project").blockingHandler(rc -> {
+		route(mi, "/sync/issues/init/:projectGroup/:project", rc -> {
 			// TODO: we can remove this one once we figure out why POST management does not
 			// work correctly...
 			String projectGroup = rc.pathParam("projectGroup");
 			String project = rc.pathParam("project");
 			List<String> maxToSyncList = rc.queryParam("maxToSync");
-			AtomicInteger maxToSync = maxToSyncList.isEmpty()
-					? null
-					: new AtomicInteger(Integer.parseInt(maxToSyncList.get(0)) + 1);
+			long maxToSync = maxToSyncList.isEmpty() ? -1L : Long.parseLong(maxToSyncList.get(0));
 
 			HandlerProjectGroupContext context = contextPerProjectGroup.get(projectGroup);
 
@@ -97,27 +179,10 @@ public class JiraService {
 				throw new IllegalArgumentException("Unknown project group '%s'".formatted(projectGroup));
 			}
 
-			HandlerProjectContext projectContext = context.contextForOriginalProjectKey(project);
-
-			AtomicLong largestSyncedJiraIssueKeyNumber = new AtomicLong(
-					projectContext.getLargestSyncedJiraIssueKeyNumber());
-			BooleanSupplier continueSyncing = maxToSync == null ? () -> true : () -> maxToSync.decrementAndGet() > 0;
-			String identity = "Init Sync for project %s".formatted(project);
-			scheduler.newJob(identity).setConcurrentExecution(Scheduled.ConcurrentExecution.SKIP)
-					// every 10 seconds:
-					.setCron("0/10 * * * * ?").setTask(executionContext -> {
-						Optional<JiraIssue> issueToSync = projectContext
-								.getNextIssueToSync(largestSyncedJiraIssueKeyNumber.get());
-						if (issueToSync.isEmpty() || !continueSyncing.getAsBoolean()) {
-							scheduler.unscheduleJob(identity);
-						} else {
-							triggerSyncEvent(issueToSync.get(), context);
-							largestSyncedJiraIssueKeyNumber.set(JiraIssue.keyToLong(issueToSync.get().key));
-						}
-					}).schedule();
+			startSyncJob(context, SyncJob.Checkpoint.initial(project, maxToSync));
 			rc.end();
 		});
-		mi.router().get("/sync/issues/re-sync/:projectGroup/:issue").blockingHandler(rc -> {
+		route(mi, "/sync/issues/re-sync/:projectGroup/:issue", rc -> {
 			// TODO: we can remove this one once we figure out why POST management does not
 			// work correctly...
 			String projectGroup = rc.pathParam("projectGroup");
@@ -129,10 +194,11 @@ public class JiraService {
 				throw new IllegalArgumentException("Unknown project '%s'".formatted(projectGroup));
 			}
 
-			triggerSyncEvent(context.sourceJiraClient().getIssue(issue), context);
+			triggerSyncEvent(context.sourceJiraClient().getIssue(issue, SYNC_EVENT_FIELDS), context,
+					EventPriority.MANUAL);
 			rc.end();
 		});
-		mi.router().get("/sync/issues/deleted/:projectGroup").blockingHandler(rc -> {
+		route(mi, "/sync/issues/deleted/:projectGroup", rc -> {
 			String projectGroup = rc.pathParam("projectGroup");
 			String issues = rc.queryParam("issues").getFirst();
 
@@ -144,15 +210,18 @@ public class JiraService {
 
 			String[] split = issues.split(",");
 			for (String key : split) {
-				context.submitTask(new JiraIssueDeleteEventHandler(reportingConfig, context, -1L, key));
+				context.submitTask(new JiraIssueDeleteEventHandler(reportingConfig, context, -1L, key),
+						EventPriority.BULK);
 			}
 			rc.end();
 		});
-		mi.router().get("/sync/issues/transition/re-sync/:projectGroup").blockingHandler(rc -> {
+		route(mi, "/sync/issues/transition/re-sync/:projectGroup", rc -> {
 			// TODO: we can remove this one once we figure out why POST management does not
 			// work correctly...
 			String projectGroup = rc.pathParam("projectGroup");
 			String query = rc.queryParam("query").getFirst();
+			// issues whose latest update was synced already are skipped, unless forced:
+			boolean force = rc.queryParam("force").stream().anyMatch("true"::equalsIgnoreCase);
 
 			HandlerProjectGroupContext context = contextPerProjectGroup.get(projectGroup);
 
@@ -160,16 +229,14 @@ public class JiraService {
 				throw new IllegalArgumentException("Unknown project '%s'".formatted(projectGroup));
 			}
 
-			context.submitTask(() -> {
-				syncByQuery(query, context, jiraIssue -> context
-						.submitTask(new JiraIssueTransitionOnlyEventHandler(reportingConfig, context, jiraIssue)));
-			});
+			startSyncJob(context, SyncJob.Checkpoint.query(SyncJob.Type.TRANSITION, query, false, force));
 			rc.end();
 		});
-		mi.router().get("/sync/issues/query/full/:projectGroup").blockingHandler(rc -> {
+		route(mi, "/sync/issues/query/full/:projectGroup", rc -> {
 			// syncs issue with comments, links etc.
 			String projectGroup = rc.pathParam("projectGroup");
 			String query = rc.queryParam("query").getFirst();
+			boolean force = rc.queryParam("force").stream().anyMatch("true"::equalsIgnoreCase);
 
 			HandlerProjectGroupContext context = contextPerProjectGroup.get(projectGroup);
 
@@ -177,14 +244,15 @@ public class JiraService {
 				throw new IllegalArgumentException("Unknown project '%s'".formatted(projectGroup));
 			}
 
-			context.submitTask(() -> syncByQuery(query, context));
+			startSyncJob(context, SyncJob.Checkpoint.query(SyncJob.Type.FULL, query, false, force));
 			rc.end();
 		});
-		mi.router().get("/sync/issues/query/simple/:projectGroup").blockingHandler(rc -> {
+		route(mi, "/sync/issues/query/simple/:projectGroup", rc -> {
 			// syncs only assignee/body, without links comments and transitions
 			String projectGroup = rc.pathParam("projectGroup");
 			String query = rc.queryParam("query").getFirst();
 			boolean applyTransitionUpdate = "true".equalsIgnoreCase(rc.queryParam("applyTransitionUpdate").getFirst());
+			boolean force = rc.queryParam("force").stream().anyMatch("true"::equalsIgnoreCase);
 
 			HandlerProjectGroupContext context = contextPerProjectGroup.get(projectGroup);
 
@@ -192,12 +260,129 @@ public class JiraService {
 				throw new IllegalArgumentException("Unknown project '%s'".formatted(projectGroup));
 			}
 
-			context.submitTask(() -> syncByQuery(query, context,
-					jiraIssue -> context.submitTask(new JiraIssueSimpleUpsertEventHandler(reportingConfig, context,
-							jiraIssue, applyTransitionUpdate))));
+			startSyncJob(context,
+					SyncJob.Checkpoint.query(SyncJob.Type.SIMPLE, query, applyTransitionUpdate, force));
 			rc.end();
 		});
-		mi.router().get("/sync/fix-versions/:projectGroup/:project").blockingHandler(rc -> {
+		route(mi, "/sync/jobs/:projectGroup", rc -> {
+			// the progress of the bulk sync jobs, both the running and the recently
+			// finished ones:
+			String projectGroup = rc.pathParam("projectGroup");
+
+			HandlerProjectGroupContext context = contextPerProjectGroup.get(projectGroup);
+
+			if (context == null) {
+				throw new IllegalArgumentException("Unknown project '%s'".formatted(projectGroup));
+			}
+
+			rc.json(context.syncJobs().list().stream().map(JiraService::toJson).toList());
+		});
+		route(mi, "/sync/rate-limit/:projectGroup", rc -> {
+			// how long the events currently have to wait for the rate limiters:
+			String projectGroup = rc.pathParam("projectGroup");
+
+			HandlerProjectGroupContext context = contextPerProjectGroup.get(projectGroup);
+
+			if (context == null) {
+				throw new IllegalArgumentException("Unknown project '%s'".formatted(projectGroup));
+			}
+
+			rc.json(Map.of("waitTimeMillis", context.rateLimiterWaitTime().toMillis(), "downstreamWaitTimeMillis",
+					context.downstreamRateLimiterWaitTime().toMillis(), "sourceRateFactor",
+					context.sourceRateController().rateFactor(), "sourcePauseMillis",
+					context.sourceRateController().pauseTime().toMillis(), "destinationRateFactor",
+					context.destinationRateController().rateFactor(), "destinationPauseMillis",
+					context.destinationRateController().pauseTime().toMillis()));
+		});
+		route(mi, "/sync/status/:projectGroup", rc -> {
+			String projectGroup = rc.pathParam("projectGroup");
+
+			HandlerProjectGroupContext context = contextPerProjectGroup.get(projectGroup);
+
+			if (context == null) {
+				throw new IllegalArgumentException("Unknown project '%s'".formatted(projectGroup));
+			}
+
+			rc.json(Map.of("pendingEvents", context.pendingEventsInCurrentContext(), "queueFillRatio",
+					context.queueFillRatio(), "pendingDownstreamEvents",
+					context.pendingDownstreamEventsInCurrentContext(), "downstreamQueueFillRatio",
+					context.downstreamQueueFillRatio(), "highWaterMark",
+					context.projectGroup().processing().highWaterMark()));
+		});
+		route(mi, "/sync/retries/:projectGroup", rc -> {
+			// events that failed and are waiting for their next attempt:
+			String projectGroup = rc.pathParam("projectGroup");
+
+			HandlerProjectGroupContext context = contextPerProjectGroup.get(projectGroup);
+
+			if (context == null) {
+				throw new IllegalArgumentException("Unknown project '%s'".formatted(projectGroup));
+			}
+
+			rc.json(context.retries().scheduled().stream()
+					.map(retry -> Map.of("event", retry.event(), "failedAttempts", retry.attempt(), "dueAt",
+							retry.dueAt().toString(), "failure", String.valueOf(retry.failure())))
+					.toList());
+		});
+		route(mi, "/sync/dead-letters/:projectGroup", rc -> {
+			String projectGroup = rc.pathParam("projectGroup");
+
+			HandlerProjectGroupContext context = contextPerProjectGroup.get(projectGroup);
+
+			if (context == null) {
+				throw new IllegalArgumentException("Unknown project '%s'".formatted(projectGroup));
+			}
+
+			rc.json(context.deadLetters().list().stream().map(JiraService::toJson).toList());
+		});
+		route(mi, "/sync/issue-cache/:projectGroup", rc -> {
+			String projectGroup = rc.pathParam("projectGroup");
+
+			HandlerProjectGroupContext context = contextPerProjectGroup.get(projectGroup);
+
+			if (context == null) {
+				throw new IllegalArgumentException("Unknown project '%s'".formatted(projectGroup));
+			}
+
+			IssueCache.Stats stats = context.sourceIssueCache().stats();
+			rc.json(Map.of("size", stats.size(), "hits", stats.hits(), "misses", stats.misses(), "evictions",
+					stats.evictions(), "invalidations", stats.invalidations()));
+		});
+		route(mi, "/sync/dead-letters/replay/:projectGroup", rc -> {
+			// replays a single event if the id is passed, or all of them otherwise
+			String projectGroup = rc.pathParam("projectGroup");
+			List<String> id = rc.queryParam("id");
+
+			HandlerProjectGroupContext context = contextPerProjectGroup.get(projectGroup);
+
+			if (context == null) {
+				throw new IllegalArgumentException("Unknown project '%s'".formatted(projectGroup));
+			}
+
+			DeadLetterQueue deadLetters = context.deadLetters();
+			int replayed = id.isEmpty()
+					? deadLetters.replayAll()
+					: (deadLetters.replay(Long.parseLong(id.get(0))) ? 1 : 0);
+			rc.json(Map.of("replayed", replayed));
+		});
+		route(mi, "/sync/dead-letters/purge/:projectGroup", rc -> {
+			// purges a single event if the id is passed, or all of them otherwise
+			String projectGroup = rc.pathParam("projectGroup");
+			List<String> id = rc.queryParam("id");
+
+			HandlerProjectGroupContext context = contextPerProjectGroup.get(projectGroup);
+
+			if (context == null) {
+				throw new IllegalArgumentException("Unknown project '%s'".formatted(projectGroup));
+			}
+
+			DeadLetterQueue deadLetters = context.deadLetters();
+			int purged = id.isEmpty()
+					? deadLetters.purgeAll()
+					: (deadLetters.purge(Long.parseLong(id.get(0))) ? 1 : 0);
+			rc.json(Map.of("purged", purged));
+		});
+		route(mi, "/sync/fix-versions/:projectGroup/:project", rc -> {
 			String projectGroup = rc.pathParam("projectGroup");
 			String project = rc.pathParam("project");
 
@@ -207,10 +392,10 @@ public class JiraService {
 				throw new IllegalArgumentException("Unknown project '%s'".formatted(projectGroup));
 			}
 
-			context.submitTask(context.contextForOriginalProjectKey(project)::refreshFixVersions);
+			context.submitTask(context.contextForOriginalProjectKey(project)::refreshFixVersions, EventPriority.BULK);
 			rc.end();
 		});
-		mi.router().get("/sync/fix-versions/:projectGroup/:project/:versionId").blockingHandler(rc -> {
+		route(mi, "/sync/fix-versions/:projectGroup/:project/:versionId", rc -> {
 			String projectGroup = rc.pathParam("projectGroup");
 			String project = rc.pathParam("project");
 			String versionId = rc.pathParam("versionId");
@@ -241,8 +426,36 @@ public class JiraService {
 	 *            The body of the event posted by the webhook.
 	 * @param triggeredByUser
 	 *            The ID of the Jira user that triggered the webhook event.
+	 * @throws EventQueueFullException
+	 *             if the event cannot be accepted at the moment, as there are too
+	 *             many events waiting to be processed.
 	 */
 	public void acknowledge(String projectGroup, JiraWebHookEvent event, String triggeredByUser) {
+		acknowledge(projectGroup, event, triggeredByUser, EventPriority.INTERACTIVE);
+	}
+
+	/**
+	 * @param priority
+	 *            The priority of the event. Only the events coming from the outside
+	 *            (webhook), i.e. {@link EventPriority#INTERACTIVE interactive} ones,
+	 *            are refused if the queue is too full, the events triggered
+	 *            internally, e.g. by the scheduled sync, are always accepted if
+	 *            there's still some room in the queue.
+	 */
+	private void acknowledge(String projectGroup, JiraWebHookEvent event, String triggeredByUser,
+			EventPriority priority) {
+		acknowledge(projectGroup, event, triggeredByUser, priority, handler -> {
+		});
+	}
+
+	/**
+	 * @param tracker
+	 *            Called with each handler of the event before it is queued, e.g. to
+	 *            be notified once the event is processed.
+	 */
+	private void acknowledge(String projectGroup, JiraWebHookEvent event, String triggeredByUser,
+			EventPriority priority, Consumer<JiraEventHandler> tracker) {
+		boolean external = priority == EventPriority.INTERACTIVE;
 		event.eventType().ifPresentOrElse(eventType -> {
 			var context = contextPerProjectGroup.get(projectGroup);
 			if (context == null) {
@@ -255,17 +468,113 @@ public class JiraService {
 						Set.of());
 			}
 
+			if (event.issue != null) {
+				// the cached copy of the issue is outdated now, even if the event itself is
+				// ignored:
+				JiraWebHookIssue issue = event.issue;
+				issue.updated()
+						.ifPresent(updated -> context.sourceIssueCache().updated(issue.id, issue.key, updated));
+			}
+
 			if (context.isUserIgnored(triggeredByUser)) {
 				Log.infof("Event was triggered by %s user that is in the ignore list: %.200s", triggeredByUser, event);
 				return;
 			}
 
-			for (Runnable handler : eventType.handlers(reportingConfig, event, context)) {
-				context.submitTask(handler);
+			if (external) {
+				context.admitEvent();
+			}
+
+			Collection<Runnable> handlers = eventType.handlers(reportingConfig, event, context);
+			for (Runnable handler : handlers) {
+				if (handler instanceof JiraEventHandler eventHandler) {
+					tracker.accept(eventHandler);
+				}
+			}
+			long entryId = journal(context, event, triggeredByUser, priority);
+			try {
+				submitJournaled(context, handlers, entryId, priority);
+			} catch (RejectedExecutionException e) {
+				// none of the handlers were queued, and the event is going to be delivered
+				// again, so there is nothing to replay:
+				context.journal().markDone(entryId);
+				if (external) {
+					throw new EventQueueFullException(e.getMessage(), context.projectGroup().processing().retryAfter());
+				}
+				throw e;
 			}
 		}, () -> Log.infof("Event type %s is not supported and cannot be handled.", event.webhookEvent));
 	}
 
+	private long journal(HandlerProjectGroupContext context, JiraWebHookEvent event, String triggeredByUser,
+			EventPriority priority) {
+		EventJournal journal = context.journal();
+		if (journal == EventJournal.NONE) {
+			return -1L;
+		}
+		try {
+			return journal.append(new JournaledEvent(context.projectGroupName(), triggeredByUser, event, priority)
+					.write(journalMapper));
+		} catch (IOException | RuntimeException e) {
+			Log.warnf(e, "Unable to write the event %.200s to the journal: %s", event, e.getMessage());
+			return -1L;
+		}
+	}
+
+	private void submitJournaled(HandlerProjectGroupContext context, Collection<Runnable> handlers, long entryId,
+			EventPriority priority) {
+		if (entryId < 0) {
+			context.submitTasks(handlers, priority);
+			return;
+		}
+		// the journal entry is done only once all the handlers of the event are done:
+		AtomicInteger remaining = new AtomicInteger(handlers.size() + 1);
+		Runnable onCompletion = () -> {
+			if (remaining.decrementAndGet() == 0) {
+				context.journal().markDone(entryId);
+			}
+		};
+		for (Runnable handler : handlers) {
+			if (handler instanceof JiraEventHandler eventHandler) {
+				eventHandler.whenCompleted(onCompletion);
+			} else {
+				onCompletion.run();
+			}
+		}
+		context.submitTasks(handlers, priority);
+		onCompletion.run();
+	}
+
+	private void replayJournaledEvents(HandlerProjectGroupContext context) {
+		List<EventJournal.Entry> entries = context.journal().pendingEntries();
+		if (entries.isEmpty()) {
+			return;
+		}
+		Log.infof("Replaying %d journaled events of the project group %s that were not processed before the restart",
+				entries.size(), context.projectGroupName());
+		for (EventJournal.Entry entry : entries) {
+			try {
+				JournaledEvent journaled = JournaledEvent.read(journalMapper, entry.payload());
+				Optional<JiraWebhookEventType> eventType = journaled.event().eventType();
+				if (eventType.isEmpty()) {
+					context.journal().markDone(entry.id());
+					continue;
+				}
+				submitJournaled(context, eventType.get().handlers(reportingConfig, journaled.event(), context),
+						entry.id(), journaled.priority());
+			} catch (RejectedExecutionException e) {
+				// the rest stays in the journal and will be replayed on the next start:
+				Log.warnf("Unable to replay all the journaled events of the project group %s: %s",
+						context.projectGroupName(), e.getMessage());
+				return;
+			} catch (IOException | RuntimeException e) {
+				Log.errorf(e, "Unable to replay the journaled event %d of the project group %s: %s", entry.id(),
+						context.projectGroupName(), e.getMessage());
+				context.journal().markDone(entry.id());
+			}
+		}
+	}
+
 	public void downstreamAcknowledge(String project, JiraActionEvent event) {
 		event.eventType().ifPresentOrElse(eventType -> {
 			var context = contextPerProjectGroup.get(project);
@@ -282,8 +591,12 @@ public class JiraService {
 				return;
 			}
 
-			for (Runnable handler : eventType.handlers(reportingConfig, event, context)) {
-				context.submitDownstreamTask(handler);
+			context.admitDownstreamEvent();
+
+			try {
+				context.submitDownstreamTasks(eventType.handlers(reportingConfig, event, context));
+			} catch (RejectedExecutionException e) {
+				throw new EventQueueFullException(e.getMessage(), context.projectGroup().processing().retryAfter());
 			}
 		}, () -> Log.infof("Event type %s is not supported and cannot be handled.", event.event));
 
@@ -299,10 +612,23 @@ public class JiraService {
 				Log.infof("Generating issues for %s project.", project);
 
 				HandlerProjectContext projectContext = context.contextForProject(project);
-				String query = "project=%s and updated >= %s ORDER BY key".formatted(
-						projectContext.project().originalProjectKey(), context.projectGroup().scheduled().timeFilter());
+				SyncWatermarks watermarks = context.syncWatermarks();
+				Instant startedAt = Instant.now();
+				SyncWatermarks.Run run = watermarks.start(project);
+				// the issues are synced in the order they were updated, so that the watermark
+				// can be moved forward with each page, once its events are processed:
+				String query = "project=%s and updated >= %s ORDER BY updated ASC, key ASC".formatted(
+						projectContext.project().originalProjectKey(),
+						updatedSince(context.projectGroup().scheduled(), watermarks.get(project)));
 				try {
-					syncByQuery(query, context);
+					syncByQuery(query, context, SYNC_EVENT_FIELDS, issues -> {
+						SyncWatermarks.Run.Page page = run.page(lastUpdated(issues).orElse(null));
+						issues.forEach(jiraIssue -> triggerSyncEvent(jiraIssue, context, EventPriority.SCHEDULED, false,
+								handler -> handler.whenCompleted(page.event())));
+						page.queued();
+					});
+					// all the issues updated before the run started were seen by now:
+					run.finish(startedAt);
 				} catch (Exception e) {
 					failureCollector
 							.warning("Failed to fetch issues for a query '%s': %s".formatted(query, e.getMessage()), e);
@@ -316,6 +642,10 @@ public class JiraService {
 
 	@PreDestroy
 	public void finishProcessingAndShutdown() {
+		if (managementExecutor != null) {
+			managementExecutor.shutdown();
+		}
+		jobExecutor.shutdownNow();
 		for (HandlerProjectGroupContext context : contextPerProjectGroup.values()) {
 			try {
 				context.close();
@@ -325,48 +655,176 @@ public class JiraService {
 		}
 	}
 
-	private void syncByQuery(String query, HandlerProjectGroupContext context) {
-		syncByQuery(query, context, jiraIssue -> triggerSyncEvent(jiraIssue, context));
+	private static Map<String, Object> toJson(DeadLetterQueue.DeadLetter deadLetter) {
+		Map<String, Object> json = new HashMap<>();
+		json.put("id", deadLetter.id());
+		json.put("type", deadLetter.type());
+		json.put("key", deadLetter.key());
+		json.put("failure", deadLetter.failure());
+		json.put("transientFailure", deadLetter.transientFailure());
+		json.put("deliveries", deadLetter.deliveries());
+		json.put("failedAt", String.valueOf(deadLetter.failedAt()));
+		json.put("nextRedeliveryAt", String.valueOf(deadLetter.nextRedeliveryAt()));
+		return json;
 	}
 
-	private void syncByQuery(String query, HandlerProjectGroupContext context, Consumer<JiraIssue> action) {
-		JiraIssues issues = null;
-		String nextPageToken = null;
-		int max = 100;
-		do {
-			issues = context.sourceJiraClient().find(query, nextPageToken, max, List.of("*all"));
-			Log.infof("Sync by query \"%s\" will try syncing issues.",
-					query.substring(0, Math.min(100, query.length())));
-			issues.issues.forEach(action);
-
-			nextPageToken = issues.nextPageToken;
-		} while (!issues.isLast && nextPageToken != null);
+	private static Map<String, Object> toJson(SyncJob job) {
+		SyncJob.Checkpoint checkpoint = job.currentCheckpoint();
+		Map<String, Object> json = new HashMap<>();
+		json.put("id", job.id());
+		json.put("type", checkpoint.type());
+		json.put("status", job.status());
+		json.put("project", checkpoint.project());
+		json.put("query", checkpoint.query());
+		json.put("cursor", checkpoint.cursor());
+		json.put("processed", checkpoint.processed());
+		json.put("remaining", job.remaining() < 0 ? null : job.remaining());
+		json.put("ratePerSecond", job.rate());
+		json.put("startedAt", String.valueOf(checkpoint.startedAt()));
+		json.put("failure", job.failure());
+		return json;
 	}
 
-	private void triggerSyncEvent(JiraIssue jiraIssue, HandlerProjectGroupContext context) {
+	/**
+	 * @return the relative JQL date to look for the updated issues from: the
+	 *         watermark of the previous run, with some skew, or the configured time
+	 *         filter if there is no watermark yet.
+	 */
+	private static String updatedSince(JiraConfig.Scheduled scheduled, Optional<Instant> watermark) {
+		// a relative date, unlike an absolute one, does not depend on the time zone of
+		// the Jira user:
+		return watermark.map(since -> "-%dm".formatted(
+				Duration.between(since, Instant.now()).plus(scheduled.watermarkSkew()).toMinutes() + 1))
+				.orElseGet(scheduled::timeFilter);
+	}
+
+	private static Optional<Instant> lastUpdated(List<JiraIssue> issues) {
+		return issues.stream().filter(issue -> issue.fields != null && issue.fields.updated != null)
+				.map(issue -> issue.fields.updated.toInstant()).max(Instant::compareTo);
+	}
+
+	/**
+	 * @param action
+	 *            Called with the issues of each page, in the order of the pages.
+	 */
+	private void syncByQuery(String query, HandlerProjectGroupContext context, List<String> fields,
+			Consumer<List<JiraIssue>> action) {
+		try (SearchPages pages = SearchPages.of(context.projectGroup().syncJobs(), null,
+				(token, pageSize) -> context.sourceJiraClient().find(query, token, pageSize, fields))) {
+			SearchPages.Page page;
+			while ((page = pages.next()) != null) {
+				Log.infof("Sync by query \"%s\" will try syncing issues.",
+						query.substring(0, Math.min(100, query.length())));
+				action.accept(page.issues().issues);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while syncing the issues of the query: " + query, e);
+		}
+	}
+
+	private void startSyncJob(HandlerProjectGroupContext context, SyncJob.Checkpoint checkpoint) {
+		boolean force = checkpoint.force();
+		SyncJob job = switch (checkpoint.type()) {
+			case INITIAL -> new InitialSync(context, checkpoint, SYNC_EVENT_FIELDS,
+					jiraIssue -> triggerSyncEvent(jiraIssue, context, EventPriority.BULK));
+			case FULL -> new QuerySync(context, checkpoint, SYNC_EVENT_FIELDS,
+					jiraIssue -> triggerSyncEvent(jiraIssue, context, EventPriority.BULK, force, handler -> {
+					}));
+			// the issues are passed to the handlers as the source issues, so they need all
+			// the fields:
+			case SIMPLE -> new QuerySync(context, checkpoint, List.of("*all"),
+					unlessSynced(context, force,
+							jiraIssue -> context.submitTask(new JiraIssueSimpleUpsertEventHandler(reportingConfig,
+									context, jiraIssue, checkpoint.applyTransitionUpdate()), EventPriority.BULK)));
+			case TRANSITION -> new QuerySync(context, checkpoint, List.of("*all"),
+					unlessSynced(context, force,
+							jiraIssue -> context.submitTask(
+									new JiraIssueTransitionOnlyEventHandler(reportingConfig, context, jiraIssue),
+									EventPriority.BULK)));
+		};
+		context.syncJobs().register(job);
+		jobExecutor.execute(job);
+	}
+
+	/**
+	 * @return the action, skipping the issues whose latest update was synced
+	 *         already, unless forced. Only for the actions that sync the issue
+	 *         itself, and not its comments or links.
+	 */
+	private static Consumer<JiraIssue> unlessSynced(HandlerProjectGroupContext context, boolean force,
+			Consumer<JiraIssue> action) {
+		if (force) {
+			return action;
+		}
+		return jiraIssue -> {
+			if (jiraIssue.fields != null
+					&& context.syncedIssueStamps().current(jiraIssue.id, jiraIssue.fields.updated)) {
+				Log.debugf("Skipping the issue %s, its latest update was synced already", jiraIssue.key);
+				return;
+			}
+			action.accept(jiraIssue);
+		};
+	}
+
+	private void resumeSyncJobs(HandlerProjectGroupContext context) {
+		for (SyncJob.Checkpoint checkpoint : context.syncJobs().pendingCheckpoints()) {
+			Log.infof("Resuming the sync job %s of the project group %s that was interrupted by the restart",
+					checkpoint.id(), context.projectGroupName());
+			try {
+				startSyncJob(context, checkpoint);
+			} catch (RuntimeException e) {
+				Log.errorf(e, "Unable to resume the sync job %s of the project group %s: %s", checkpoint.id(),
+						context.projectGroupName(), e.getMessage());
+			}
+		}
+	}
+
+	private void triggerSyncEvent(JiraIssue jiraIssue, HandlerProjectGroupContext context, EventPriority priority) {
+		triggerSyncEvent(jiraIssue, context, priority, true, handler -> {
+		});
+	}
+
+	/**
+	 * @param force
+	 *            Whether to sync the issue itself even if its latest update was
+	 *            synced already. Its comments and links are synced either way, as
+	 *            changing them does not always change the issue.
+	 * @param tracker
+	 *            Called with each handler of the sync events before it is queued.
+	 */
+	private void triggerSyncEvent(JiraIssue jiraIssue, HandlerProjectGroupContext context, EventPriority priority,
+			boolean force, Consumer<JiraEventHandler> tracker) {
 		Log.infof("Adding sync events for a jira issue: %s; Already queued events: %s", jiraIssue.key,
 				context.pendingEventsInCurrentContext());
 
+		if (jiraIssue.fields != null && jiraIssue.fields.updated != null) {
+			// a cached copy of the issue older than this one must not be synced:
+			context.sourceIssueCache().updated(jiraIssue.id, jiraIssue.key, jiraIssue.fields.updated);
+		}
+
 		JiraWebHookIssue issue = new JiraWebHookIssue();
 		issue.id = jiraIssue.id;
 		issue.key = jiraIssue.key;
 
-		JiraWebHookEvent event = new JiraWebHookEvent();
-		event.webhookEvent = JiraWebhookEventType.ISSUE_UPDATED.getName();
-		event.issue = issue;
-
-		acknowledge(context.projectGroupName(), event, SYSTEM_USER);
-
-		// now sync comments:
-		if (jiraIssue.fields.comment != null && jiraIssue.fields.comment.comments != null) {
-			triggerCommentSyncEvents(context.projectGroupName(), issue, jiraIssue.fields.comment.comments);
+		JiraWebHookEvent event;
+		if (!force && jiraIssue.fields != null
+				&& context.syncedIssueStamps().current(jiraIssue.id, jiraIssue.fields.updated)) {
+			Log.debugf("Skipping the update of the issue %s, its latest update was synced already", jiraIssue.key);
 		} else {
-			// comments not always come in the jira request... so if we didn't get any, just
-			// in case we will query for them:
-			JiraComments comments = context.sourceJiraClient().getComments(jiraIssue.id, 0, 500);
-			triggerCommentSyncEvents(context.projectGroupName(), issue, comments.comments);
+			event = new JiraWebHookEvent();
+			event.webhookEvent = JiraWebhookEventType.ISSUE_UPDATED.getName();
+			event.issue = issue;
+
+			acknowledge(context.projectGroupName(), event, SYSTEM_USER, priority, tracker);
 		}
 
+		// now sync comments, all of them at once:
+		event = new JiraWebHookEvent();
+		event.issue = issue;
+		event.webhookEvent = JiraWebhookEventType.COMMENTS_RECONCILE.getName();
+		acknowledge(context.projectGroupName(), event, SYSTEM_USER, priority, tracker);
+
 		// and links:
 		if (jiraIssue.fields.issuelinks != null) {
 			for (JiraIssueLink link : jiraIssue.fields.issuelinks) {
@@ -375,19 +833,8 @@ public class JiraService {
 				event.issueLink = new JiraWebHookIssueLink();
 				event.issueLink.id = Long.parseLong(link.id);
 
-				acknowledge(context.projectGroupName(), event, SYSTEM_USER);
+				acknowledge(context.projectGroupName(), event, SYSTEM_USER, priority, tracker);
 			}
 		}
 	}
-
-	private void triggerCommentSyncEvents(String projectKey, JiraWebHookIssue issue, List<JiraComment> comments) {
-		for (JiraComment comment : comments) {
-			var event = new JiraWebHookEvent();
-			event.comment = new JiraWebHookObject();
-			event.comment.id = Long.parseLong(comment.id);
-			event.issue = issue;
-			event.webhookEvent = JiraWebhookEventType.COMMENT_UPDATED.getName();
-			acknowledge(projectKey, event, SYSTEM_USER);
-		}
-	}
 }
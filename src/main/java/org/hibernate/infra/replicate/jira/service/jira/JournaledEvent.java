@@ -0,0 +1,48 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.hibernate.infra.replicate.jira.service.jira.model.JiraBaseObject;
+import org.hibernate.infra.replicate.jira.service.jira.model.hook.JiraWebHookEvent;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The form in which an acknowledged webhook event is written to the
+ * {@link org.hibernate.infra.replicate.jira.service.journal.EventJournal
+ * journal}.
+ */
+record JournaledEvent(String projectGroup, String triggeredByUser, JiraWebHookEvent event, EventPriority priority) {
+
+	JournaledEvent {
+		// entries written before the priorities were introduced:
+		if (priority == null) {
+			priority = EventPriority.INTERACTIVE;
+		}
+	}
+
+	/**
+	 * @return a mapper that only writes the properties of the events that we
+	 *         actually use. Webhook payloads contain the entire issue, and we do
+	 *         not want all of that in the journal, since the handlers fetch the
+	 *         data through the REST API anyway.
+	 */
+	static ObjectMapper mapper(ObjectMapper objectMapper) {
+		return objectMapper.copy().addMixIn(JiraBaseObject.class, WithoutOtherProperties.class);
+	}
+
+	static JournaledEvent read(ObjectMapper mapper, byte[] payload) throws IOException {
+		return mapper.readValue(payload, JournaledEvent.class);
+	}
+
+	byte[] write(ObjectMapper mapper) throws IOException {
+		return mapper.writeValueAsBytes(this);
+	}
+
+	private abstract static class WithoutOtherProperties {
+		@JsonAnyGetter(enabled = false)
+		private Map<String, Object> properties;
+	}
+}
@@ -0,0 +1,338 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Executes the submitted tasks on a fixed number of lanes. Each lane is drained
+ * by a single thread, and the tasks submitted with the same key always end up in
+ * the same lane. This means that the tasks for the same key (e.g. events for the
+ * same issue) are executed one after another in the order they were submitted,
+ * while the tasks for different keys can run in parallel.
+ * <p>
+ * Within a lane, the tasks of each key wait in their own queue, in the order
+ * they were submitted, whatever their {@link EventPriority priority}. The
+ * priorities only decide which key goes next: the key is picked using a smooth
+ * weighted round-robin over the priorities, each key counting with the most
+ * urgent priority of its waiting tasks.
+ */
+final class KeyedEventExecutor {
+
+	private static final EventPriority[] PRIORITIES = EventPriority.values();
+
+	private final String name;
+	private final Lane[] lanes;
+	private final int capacity;
+	private final AtomicInteger pending = new AtomicInteger();
+	private final AtomicInteger nextLane = new AtomicInteger();
+	private final ReadWriteLock shutdownLock = new ReentrantReadWriteLock();
+	private volatile boolean shutdown;
+
+	KeyedEventExecutor(String name, int lanes, int capacity, ThreadFactory threadFactory) {
+		if (lanes < 1) {
+			throw new IllegalArgumentException("Number of lanes must be positive: %s".formatted(lanes));
+		}
+		this.name = name;
+		this.capacity = capacity;
+		this.lanes = new Lane[lanes];
+		for (int i = 0; i < lanes; i++) {
+			this.lanes[i] = new Lane(threadFactory);
+		}
+		for (Lane lane : this.lanes) {
+			lane.thread.start();
+		}
+	}
+
+	/**
+	 * @param key
+	 *            The key that determines the lane to execute the task in. If
+	 *            {@code null}, tasks are distributed between the lanes in a
+	 *            round-robin fashion.
+	 * @param task
+	 *            The task to execute.
+	 * @throws RejectedExecutionException
+	 *             if the executor is shut down or if there are already too many
+	 *             tasks waiting to be executed.
+	 */
+	void execute(Object key, Runnable task) {
+		execute(key, EventPriority.INTERACTIVE, task);
+	}
+
+	void execute(Object key, EventPriority priority, Runnable task) {
+		execute(key, priority, task, false);
+	}
+
+	/**
+	 * @param reserved
+	 *            Whether the task takes the room that was {@link #reserve(int)
+	 *            reserved} for it, rather than new room in the queue.
+	 */
+	void execute(Object key, EventPriority priority, Runnable task, boolean reserved) {
+		execute(key, priority, task, reserved, false);
+	}
+
+	/**
+	 * Executes the task ahead of the other tasks waiting for the same key, e.g.
+	 * when the task is retried, and the tasks submitted after it in the meantime
+	 * should still be executed after it.
+	 */
+	void executeFirst(Object key, EventPriority priority, Runnable task) {
+		execute(key, priority, task, false, true);
+	}
+
+	private void execute(Object key, EventPriority priority, Runnable task, boolean reserved, boolean first) {
+		shutdownLock.readLock().lock();
+		try {
+			if (shutdown) {
+				throw new RejectedExecutionException("Executor %s is shut down".formatted(name));
+			}
+			if (!reserved) {
+				reserve(1);
+			}
+			// tasks without a key do not have to wait for any other task:
+			lane(key).add(key == null ? new Object() : key, priority, task, first);
+		} finally {
+			shutdownLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Reserves room in the queue for the tasks that have to be accepted all
+	 * together, e.g. the handlers of one event, so that either all or none of them
+	 * are queued. The room that the tasks do not take in the end has to be
+	 * {@link #release(int) released}.
+	 *
+	 * @throws RejectedExecutionException
+	 *             if there is not enough room for all the tasks.
+	 */
+	void reserve(int tasks) {
+		int current;
+		do {
+			current = pending.get();
+			if (current + tasks > capacity) {
+				throw new RejectedExecutionException(
+						"Executor %s has reached the limit of %d pending tasks".formatted(name, capacity));
+			}
+		} while (!pending.compareAndSet(current, current + tasks));
+	}
+
+	void release(int tasks) {
+		pending.addAndGet(-tasks);
+	}
+
+	private Lane lane(Object key) {
+		int index;
+		if (key == null) {
+			index = nextLane.getAndIncrement();
+		} else {
+			int hash = key.hashCode();
+			// spread the higher bits, as e.g. issue ids can be quite close to each other:
+			index = hash ^ (hash >>> 16);
+		}
+		return lanes[Math.floorMod(index, lanes.length)];
+	}
+
+	int pending() {
+		return pending.get();
+	}
+
+	int capacity() {
+		return capacity;
+	}
+
+	int lanes() {
+		return lanes.length;
+	}
+
+	boolean isShutdown() {
+		return shutdown;
+	}
+
+	/**
+	 * Stops accepting new tasks, the ones that are already in the lanes will still
+	 * be executed.
+	 */
+	void shutdown() {
+		shutdownLock.writeLock().lock();
+		try {
+			if (shutdown) {
+				return;
+			}
+			shutdown = true;
+			for (Lane lane : lanes) {
+				lane.shutdown();
+			}
+		} finally {
+			shutdownLock.writeLock().unlock();
+		}
+	}
+
+	boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		for (Lane lane : lanes) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0 || !lane.thread.join(Duration.ofNanos(remaining))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "KeyedEventExecutor[" + "name=" + name + ", lanes=" + lanes.length + ", pending=" + pending + ']';
+	}
+
+	private final class Lane implements Runnable {
+		private final Map<Object, KeyQueue> keys = new HashMap<>();
+		// the keys that have tasks waiting, by the most urgent priority of these tasks:
+		private final List<Queue<KeyQueue>> ready = new ArrayList<>(PRIORITIES.length);
+		// current "credit" of each priority for the smooth weighted round-robin:
+		private final int[] credits = new int[PRIORITIES.length];
+		// one permit per queued task, and an extra one on shutdown:
+		private final Semaphore available = new Semaphore(0);
+		private final Thread thread;
+
+		private Lane(ThreadFactory threadFactory) {
+			for (int i = 0; i < PRIORITIES.length; i++) {
+				ready.add(new ArrayDeque<>());
+			}
+			this.thread = threadFactory.newThread(this);
+		}
+
+		private void add(Object key, EventPriority priority, Runnable task, boolean first) {
+			synchronized (this) {
+				KeyQueue queue = keys.computeIfAbsent(key, KeyQueue::new);
+				EventPriority before = queue.priority();
+				queue.add(new QueuedTask(priority, task), first);
+				EventPriority after = queue.priority();
+				if (before != after) {
+					if (before != null) {
+						ready.get(before.ordinal()).remove(queue);
+					}
+					ready.get(after.ordinal()).add(queue);
+				}
+			}
+			available.release();
+		}
+
+		private void shutdown() {
+			available.release();
+		}
+
+		/**
+		 * @return the next task to execute, or {@code null} if the lane is shut down
+		 *         and there are no more tasks.
+		 */
+		private Runnable take() throws InterruptedException {
+			available.acquire();
+			synchronized (this) {
+				int total = 0;
+				int selected = -1;
+				for (int i = 0; i < PRIORITIES.length; i++) {
+					if (ready.get(i).isEmpty()) {
+						continue;
+					}
+					credits[i] += PRIORITIES[i].weight();
+					total += PRIORITIES[i].weight();
+					if (selected < 0 || credits[i] > credits[selected]) {
+						selected = i;
+					}
+				}
+				if (selected < 0) {
+					// only the shutdown permit is left, all the tasks are done:
+					return null;
+				}
+				credits[selected] -= total;
+				KeyQueue queue = ready.get(selected).poll();
+				Runnable task = queue.poll();
+				if (queue.priority() == null) {
+					keys.remove(queue.key);
+				} else {
+					ready.get(queue.priority().ordinal()).add(queue);
+				}
+				return task;
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					Runnable task = take();
+					if (task == null) {
+						return;
+					}
+					pending.decrementAndGet();
+					try {
+						task.run();
+					} catch (RuntimeException e) {
+						Log.errorf(e, "Failed to execute a task %s in %s: %s", task, name, e.getMessage());
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private record QueuedTask(EventPriority priority, Runnable task) {
+	}
+
+	/**
+	 * The tasks waiting for one key, guarded by the lock of the lane.
+	 */
+	private static final class KeyQueue {
+		private final Object key;
+		private final Deque<QueuedTask> tasks = new ArrayDeque<>();
+		// how many tasks of each priority are waiting:
+		private final int[] counts = new int[PRIORITIES.length];
+
+		private KeyQueue(Object key) {
+			this.key = key;
+		}
+
+		private void add(QueuedTask task, boolean first) {
+			if (first) {
+				tasks.addFirst(task);
+			} else {
+				tasks.addLast(task);
+			}
+			counts[task.priority().ordinal()]++;
+		}
+
+		private Runnable poll() {
+			QueuedTask task = tasks.poll();
+			counts[task.priority().ordinal()]--;
+			return task.task();
+		}
+
+		/**
+		 * @return the most urgent priority of the waiting tasks, {@code null} if there
+		 *         are none.
+		 */
+		private EventPriority priority() {
+			for (int i = 0; i < counts.length; i++) {
+				if (counts[i] > 0) {
+					return PRIORITIES[i];
+				}
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Syncs all the issues found by a query.
+ * <p>
+ * The cursor of the job is the token of the next page to fetch, stored once all
+ * the issues of the current page are queued, regardless of the pages that were
+ * {@link SearchPages prefetched} already. A resumed job may then queue some
+ * of the issues of the page it was interrupted at once more, which is harmless.
+ */
+final class QuerySync extends SyncJob {
+
+	private final List<String> fields;
+	private final Consumer<JiraIssue> sync;
+
+	/**
+	 * @param fields
+	 *            The fields of the source issues that the sync needs.
+	 * @param sync
+	 *            Queues the events to sync the issue.
+	 */
+	QuerySync(HandlerProjectGroupContext context, Checkpoint checkpoint, List<String> fields,
+			Consumer<JiraIssue> sync) {
+		super(context, checkpoint);
+		this.fields = fields;
+		this.sync = sync;
+	}
+
+	@Override
+	protected void sync(Checkpoint from) throws InterruptedException {
+		String query = from.query();
+		long total = count(query);
+		expect(total < 0 ? total : Math.max(0L, total - from.processed()));
+		try (SearchPages pages = SearchPages.of(config, from.cursor(),
+				(token, pageSize) -> context.sourceJiraClient().find(query, token, pageSize, fields))) {
+			SearchPages.Page page;
+			while ((page = pages.next()) != null) {
+				Log.infof("Sync by query \"%s\" will try syncing issues.",
+						query.substring(0, Math.min(100, query.length())));
+				for (JiraIssue issue : page.issues().issues) {
+					awaitRoomInQueue();
+					sync.accept(issue);
+					queued(page.token(), 1);
+				}
+				queued(page.issues().nextPageToken, 0);
+				checkpoint();
+			}
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssues;
+
+/**
+ * Goes through the pages of a search, fetching the next pages in the
+ * background while the current one is being processed, so that the latency of
+ * the search is not added to the time it takes to process the issues.
+ * <p>
+ * Since the token of a page comes with the previous page, the pages are still
+ * fetched one after the other, only ahead of time: at most
+ * {@link JiraConfig.SyncJobs#prefetchPages() the configured number} of pages
+ * are waiting to be processed at any time.
+ * <p>
+ * The page size is adjusted after each page, so that fetching a page takes
+ * about {@link JiraConfig.SyncJobs#targetPageTime() the target time}. Jira
+ * returns fewer issues than asked for when the issues are large, in which case
+ * the page size is not increased above the number of the returned issues.
+ */
+final class SearchPages implements AutoCloseable {
+
+	private static final int MIN_PAGE_SIZE = 10;
+	private static final Fetched END = new Fetched(null, null);
+
+	/**
+	 * @param token
+	 *            The token the page was fetched with, {@code null} for the first
+	 *            page.
+	 */
+	record Page(String token, JiraIssues issues) {
+	}
+
+	@FunctionalInterface
+	interface Search {
+		JiraIssues find(String nextPageToken, int pageSize);
+	}
+
+	private record Fetched(Page page, RuntimeException failure) {
+	}
+
+	private final Search search;
+	private final Duration targetPageTime;
+	private final BlockingQueue<Fetched> prefetched;
+	private final Thread fetcher;
+	private volatile int pageSize;
+	private int maxPageSize;
+	private String nextPageToken;
+	private boolean exhausted;
+	private boolean finished;
+
+	/**
+	 * @param prefetchPages
+	 *            How many pages to fetch ahead, {@code 0} to only fetch a page when
+	 *            it is asked for.
+	 * @param nextPageToken
+	 *            The token of the page to start from, {@code null} to start from
+	 *            the first one.
+	 */
+	SearchPages(int pageSize, int maxPageSize, Duration targetPageTime, int prefetchPages, String nextPageToken,
+			Search search) {
+		this.search = search;
+		this.targetPageTime = targetPageTime;
+		this.maxPageSize = Math.max(MIN_PAGE_SIZE, maxPageSize);
+		this.pageSize = Math.clamp(pageSize, MIN_PAGE_SIZE, this.maxPageSize);
+		this.nextPageToken = nextPageToken;
+		if (prefetchPages > 0) {
+			this.prefetched = new ArrayBlockingQueue<>(prefetchPages);
+			this.fetcher = Thread.ofVirtual().name("jira-search-prefetch").start(this::prefetch);
+		} else {
+			this.prefetched = null;
+			this.fetcher = null;
+		}
+	}
+
+	static SearchPages of(JiraConfig.SyncJobs config, String nextPageToken, Search search) {
+		return new SearchPages(config.pageSize(), config.maxPageSize(), config.targetPageTime(),
+				config.prefetchPages(), nextPageToken, search);
+	}
+
+	/**
+	 * @return the next page, or {@code null} if there are no more pages.
+	 */
+	Page next() throws InterruptedException {
+		if (fetcher == null) {
+			return exhausted ? null : fetch();
+		}
+		if (finished) {
+			return null;
+		}
+		Fetched fetched = prefetched.take();
+		if (fetched == END) {
+			finished = true;
+			return null;
+		}
+		if (fetched.failure() != null) {
+			finished = true;
+			throw fetched.failure();
+		}
+		return fetched.page();
+	}
+
+	/**
+	 * @return the page size the next page will be fetched with.
+	 */
+	int pageSize() {
+		return pageSize;
+	}
+
+	@Override
+	public void close() {
+		if (fetcher != null) {
+			// the fetcher may be waiting for room in the queue, or for the search:
+			fetcher.interrupt();
+		}
+	}
+
+	private void prefetch() {
+		try {
+			while (!exhausted) {
+				prefetched.put(new Fetched(fetch(), null));
+			}
+			prefetched.put(END);
+		} catch (InterruptedException e) {
+			// closed, nobody is waiting for the pages anymore
+		} catch (RuntimeException e) {
+			try {
+				prefetched.put(new Fetched(null, e));
+			} catch (InterruptedException interrupted) {
+				// closed, nobody is waiting for the failure either
+			}
+		}
+	}
+
+	private Page fetch() {
+		String token = nextPageToken;
+		long start = System.nanoTime();
+		JiraIssues issues = search.find(token, pageSize);
+		adjustPageSize(Duration.ofNanos(System.nanoTime() - start), issues);
+		nextPageToken = issues.nextPageToken;
+		exhausted = issues.isLast || nextPageToken == null;
+		return new Page(token, issues);
+	}
+
+	private void adjustPageSize(Duration elapsed, JiraIssues issues) {
+		int returned = issues.issues == null ? 0 : issues.issues.size();
+		if (returned == 0) {
+			return;
+		}
+		if (returned < pageSize && !issues.isLast && issues.nextPageToken != null) {
+			// Jira has limited the page size itself, asking for more is pointless:
+			maxPageSize = Math.max(MIN_PAGE_SIZE, returned);
+		}
+		long nanosPerIssue = Math.max(1L, elapsed.toNanos() / returned);
+		long ideal = targetPageTime.toNanos() / nanosPerIssue;
+		// the size changes at most twice at a time, so that a single slow or fast
+		// response does not throw it off:
+		int upper = (int) Math.min(maxPageSize, pageSize * 2L);
+		int lower = Math.min(Math.max(MIN_PAGE_SIZE, pageSize / 2), upper);
+		pageSize = Math.clamp(ideal, lower, upper);
+	}
+}
@@ -0,0 +1,243 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.UUID;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueCount;
+
+import io.quarkus.logging.Log;
+
+/**
+ * A bulk sync that runs in the background, outside of the event processing, and
+ * queues the events to sync the issues it finds page by page.
+ * <p>
+ * The job keeps track of how far it got in a {@link Checkpoint}, that is
+ * {@link SyncJobs#checkpoint(Checkpoint) stored} after each page, so that a job
+ * interrupted by a restart can be resumed from there. To not fill the queue
+ * with the issues of a large query, the job waits while the queue is filled
+ * above the {@link JiraConfig.SyncJobs#maxQueueFillRatio() configured ratio},
+ * and only then queues the next issue.
+ */
+public abstract class SyncJob implements Runnable {
+
+	public enum Type {
+		/**
+		 * Syncs the issues of a project that were not synced yet, see
+		 * {@link InitialSync}.
+		 */
+		INITIAL,
+		/**
+		 * Syncs the issues found by a query, with their comments and links.
+		 */
+		FULL,
+		/**
+		 * Syncs only the issues found by a query, without their comments and links.
+		 */
+		SIMPLE,
+		/**
+		 * Syncs only the status of the issues found by a query.
+		 */
+		TRANSITION
+	}
+
+	public enum Status {
+		RUNNING, DONE, FAILED,
+		/**
+		 * The job was stopped, e.g. by a shutdown, and will be resumed from its last
+		 * checkpoint on the next start.
+		 */
+		INTERRUPTED
+	}
+
+	/**
+	 * Everything needed to resume a job.
+	 *
+	 * @param project
+	 *            The original project key, for the initial sync.
+	 * @param query
+	 *            The query to sync the issues of, for the other jobs.
+	 * @param force
+	 *            Whether to sync also the issues whose latest update was synced
+	 *            already, see {@link SyncedIssueStamps}.
+	 * @param maxToSync
+	 *            How many issues to sync at most, negative for all of them.
+	 * @param cursor
+	 *            Where to continue from, or {@code null} to start from the
+	 *            beginning. Its meaning depends on the type of the job.
+	 * @param processed
+	 *            How many issues the job has queued so far.
+	 */
+	public record Checkpoint(String id, Type type, String project, String query, boolean applyTransitionUpdate,
+			boolean force, long maxToSync, String cursor, long processed, Instant startedAt) {
+
+		public static Checkpoint initial(String project, long maxToSync) {
+			// there can only be one initial sync of a project at a time:
+			return new Checkpoint("initial-" + project, Type.INITIAL, project, null, false, false, maxToSync, null,
+					0L, Instant.now());
+		}
+
+		public static Checkpoint query(Type type, String query, boolean applyTransitionUpdate, boolean force) {
+			return new Checkpoint(type.name().toLowerCase(Locale.ROOT) + "-" + UUID.randomUUID(), type, null, query,
+					applyTransitionUpdate, force, -1L, null, 0L, Instant.now());
+		}
+
+		Checkpoint advance(String cursor, long queued) {
+			return new Checkpoint(id, type, project, query, applyTransitionUpdate, force, maxToSync, cursor,
+					processed + queued, startedAt);
+		}
+	}
+
+	protected final HandlerProjectGroupContext context;
+	protected final JiraConfig.SyncJobs config;
+	private volatile Checkpoint checkpoint;
+	private volatile Status status = Status.RUNNING;
+	private volatile String failure;
+	private volatile Instant resumedAt;
+	private volatile long processedAtResume;
+	private volatile long remainingAtResume = -1L;
+
+	protected SyncJob(HandlerProjectGroupContext context, Checkpoint checkpoint) {
+		this.context = context;
+		this.config = context.projectGroup().syncJobs();
+		this.checkpoint = checkpoint;
+	}
+
+	@Override
+	public final void run() {
+		resumedAt = Instant.now();
+		processedAtResume = checkpoint.processed();
+		status = Status.RUNNING;
+		try {
+			Log.infof("Starting the sync job %s from %s", this, checkpoint.cursor() == null
+					? "the beginning"
+					: "the checkpoint %s, %d issues already queued".formatted(checkpoint.cursor(), processedAtResume));
+			sync(checkpoint);
+			status = Status.DONE;
+		} catch (InterruptedException e) {
+			status = Status.INTERRUPTED;
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException e) {
+			if (Thread.currentThread().isInterrupted()) {
+				// the REST client or the event queue gave up because of the interruption:
+				status = Status.INTERRUPTED;
+			} else {
+				status = Status.FAILED;
+				failure = e.getMessage();
+				Log.errorf(e, "The sync job %s has failed at the checkpoint %s: %s", this, checkpoint.cursor(),
+						e.getMessage());
+			}
+		} finally {
+			context.syncJobs().finished(this);
+			Log.infof("The sync job %s is %s: %s issues queued, the last checkpoint being %s", this, status,
+					checkpoint.processed(), checkpoint.cursor());
+		}
+	}
+
+	/**
+	 * Queues the events to sync the issues, starting from the cursor of the
+	 * checkpoint, and calling {@link #queued(String, long)} and
+	 * {@link #checkpoint()} as it goes. The job should also tell how many issues
+	 * it {@link #expect(long) expects} to sync, if it can.
+	 */
+	protected abstract void sync(Checkpoint from) throws InterruptedException;
+
+	/**
+	 * @param remaining
+	 *            How many issues are left to sync from the point the job is
+	 *            (re)started at, or a negative value if it cannot be told.
+	 */
+	protected void expect(long remaining) {
+		remainingAtResume = remaining;
+	}
+
+	/**
+	 * Records the progress in memory, see {@link #checkpoint()} to store it.
+	 */
+	protected void queued(String cursor, long count) {
+		checkpoint = checkpoint.advance(cursor, count);
+	}
+
+	protected void checkpoint() {
+		context.syncJobs().checkpoint(checkpoint);
+	}
+
+	protected boolean limitReached() {
+		Checkpoint current = checkpoint;
+		return current.maxToSync() >= 0 && current.processed() >= current.maxToSync();
+	}
+
+	protected void awaitRoomInQueue() throws InterruptedException {
+		while (context.queueFillRatio() >= config.maxQueueFillRatio()) {
+			Thread.sleep(config.queueCheckInterval());
+		}
+	}
+
+	/**
+	 * @return the approximate number of issues matching the query, or a negative
+	 *         value if the source Jira cannot count them, e.g. a Jira Data Center.
+	 */
+	protected long count(String query) {
+		try {
+			JiraIssueCount count = context.sourceJiraClient().countIssues(new JiraIssueCount(query));
+			return count.count == null ? -1L : count.count;
+		} catch (RuntimeException e) {
+			Log.debugf(e, "Unable to count the issues of the sync job %s: %s", this, e.getMessage());
+			return -1L;
+		}
+	}
+
+	public String id() {
+		return checkpoint.id();
+	}
+
+	public Checkpoint currentCheckpoint() {
+		return checkpoint;
+	}
+
+	public Status status() {
+		return status;
+	}
+
+	public String failure() {
+		return failure;
+	}
+
+	/**
+	 * @return how many issues are left to queue, or a negative value if it is not
+	 *         known.
+	 */
+	public long remaining() {
+		if (status == Status.DONE) {
+			return 0L;
+		}
+		Checkpoint current = checkpoint;
+		long remaining = remainingAtResume < 0
+				? -1L
+				: Math.max(0L, remainingAtResume - (current.processed() - processedAtResume));
+		if (current.maxToSync() >= 0) {
+			long untilLimit = Math.max(0L, current.maxToSync() - current.processed());
+			remaining = remaining < 0 ? untilLimit : Math.min(remaining, untilLimit);
+		}
+		return remaining;
+	}
+
+	/**
+	 * @return how many issues per second were queued since the job was (re)started.
+	 */
+	public double rate() {
+		Instant since = resumedAt;
+		if (since == null) {
+			return 0.0;
+		}
+		long millis = Duration.between(since, Instant.now()).toMillis();
+		return millis == 0 ? 0.0 : (checkpoint.processed() - processedAtResume) * 1000.0 / millis;
+	}
+
+	@Override
+	public String toString() {
+		return checkpoint.id() + "[projectGroup=" + context.projectGroupName() + ']';
+	}
+}
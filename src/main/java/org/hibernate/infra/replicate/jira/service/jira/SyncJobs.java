@@ -0,0 +1,144 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Keeps track of the sync jobs of a project group, and, if
+ * {@link JiraConfig.SyncJobs#checkpoints() enabled}, stores their checkpoints
+ * on disk, one small file per job. The file of a job is removed once the job
+ * is done or has failed, so that only the jobs interrupted by a restart are
+ * found there on the next start.
+ */
+public final class SyncJobs {
+
+	private static final ObjectMapper MAPPER = JsonMapper.builder().findAndAddModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+	private static final String CHECKPOINT_SUFFIX = ".json";
+	// the finished jobs are kept around for a while, so that their outcome can be
+	// checked:
+	private static final int FINISHED_JOBS_KEPT = 20;
+
+	private final Path directory;
+	private final Map<String, SyncJob> jobs = new LinkedHashMap<>();
+
+	/**
+	 * @param directory
+	 *            Where to store the checkpoints, or {@code null} to not store
+	 *            them.
+	 */
+	SyncJobs(Path directory) {
+		this.directory = directory;
+		if (directory != null) {
+			try {
+				Files.createDirectories(directory);
+			} catch (IOException e) {
+				throw new UncheckedIOException(
+						"Unable to create the sync job directory %s: %s".formatted(directory, e.getMessage()), e);
+			}
+		}
+	}
+
+	static SyncJobs create(JiraConfig.SyncJobs config, String name) {
+		return new SyncJobs(config.checkpoints() ? config.directory().resolve(name) : null);
+	}
+
+	/**
+	 * @throws IllegalStateException
+	 *             if a job with the same id is still running.
+	 */
+	public synchronized void register(SyncJob job) {
+		SyncJob existing = jobs.get(job.id());
+		if (existing != null && existing.status() == SyncJob.Status.RUNNING) {
+			throw new IllegalStateException("Sync job %s is already running".formatted(job.id()));
+		}
+		jobs.remove(job.id());
+		jobs.put(job.id(), job);
+		removeOldFinishedJobs();
+		checkpoint(job.currentCheckpoint());
+	}
+
+	void checkpoint(SyncJob.Checkpoint checkpoint) {
+		if (directory == null) {
+			return;
+		}
+		Path file = directory.resolve(checkpoint.id() + CHECKPOINT_SUFFIX);
+		Path temporary = directory.resolve(checkpoint.id() + CHECKPOINT_SUFFIX + ".tmp");
+		try {
+			// written aside and moved, so that a crash in the middle of the write does not
+			// leave a broken checkpoint behind:
+			Files.write(temporary, MAPPER.writeValueAsBytes(checkpoint));
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			// the job can carry on, it just will not be resumed from this point:
+			Log.warnf(e, "Unable to store the checkpoint of the sync job %s: %s", checkpoint.id(), e.getMessage());
+		}
+	}
+
+	void finished(SyncJob job) {
+		if (directory == null || job.status() == SyncJob.Status.INTERRUPTED) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(directory.resolve(job.id() + CHECKPOINT_SUFFIX));
+		} catch (IOException e) {
+			Log.warnf(e, "Unable to remove the checkpoint of the sync job %s: %s", job.id(), e.getMessage());
+		}
+	}
+
+	/**
+	 * @return the checkpoints of the jobs that did not finish before the app was
+	 *         stopped.
+	 */
+	public List<SyncJob.Checkpoint> pendingCheckpoints() {
+		List<SyncJob.Checkpoint> checkpoints = new ArrayList<>();
+		if (directory == null) {
+			return checkpoints;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + CHECKPOINT_SUFFIX)) {
+			for (Path file : files) {
+				try {
+					checkpoints.add(MAPPER.readValue(file.toFile(), SyncJob.Checkpoint.class));
+				} catch (IOException e) {
+					Log.warnf(e, "Ignoring the unreadable sync job checkpoint %s: %s", file, e.getMessage());
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(
+					"Unable to read the sync job checkpoints from %s: %s".formatted(directory, e.getMessage()), e);
+		}
+		return checkpoints;
+	}
+
+	public synchronized List<SyncJob> list() {
+		return List.copyOf(jobs.values());
+	}
+
+	private void removeOldFinishedJobs() {
+		long finished = jobs.values().stream().filter(job -> job.status() != SyncJob.Status.RUNNING).count();
+		for (Iterator<SyncJob> iterator = jobs.values().iterator(); iterator.hasNext()
+				&& finished > FINISHED_JOBS_KEPT;) {
+			if (iterator.next().status() != SyncJob.Status.RUNNING) {
+				iterator.remove();
+				finished--;
+			}
+		}
+	}
+}
@@ -0,0 +1,213 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Remembers, per project, up to when the scheduled sync has seen the updated
+ * source issues, so that the next run only has to look for the issues updated
+ * after that.
+ * <p>
+ * If the {@link JiraConfig.SyncJobs#checkpoints() checkpoints} of the sync jobs
+ * are stored on disk, the watermarks are stored next to them, in a properties
+ * file that can be edited to move a watermark back, or to remove it. Without a
+ * watermark the scheduled sync falls back to its
+ * {@link JiraConfig.Scheduled#timeFilter() time filter}.
+ * <p>
+ * A watermark is only moved past the issues of a page once the events queued
+ * for them are processed, see {@link Run}, so that the issues whose events were
+ * still waiting in the queue when the app was stopped are found again by the
+ * next run.
+ */
+public final class SyncWatermarks {
+
+	private final Path file;
+	private final Map<String, Instant> watermarks = new ConcurrentHashMap<>();
+
+	/**
+	 * @param file
+	 *            Where to store the watermarks, or {@code null} to only keep them
+	 *            in memory.
+	 */
+	SyncWatermarks(Path file) {
+		this.file = file;
+		if (file != null && Files.exists(file)) {
+			load(file);
+		}
+	}
+
+	static SyncWatermarks create(JiraConfig.SyncJobs config, String name) {
+		return new SyncWatermarks(
+				config.checkpoints() ? config.directory().resolve(name).resolve("watermarks.properties") : null);
+	}
+
+	public Optional<Instant> get(String project) {
+		return Optional.ofNullable(watermarks.get(project));
+	}
+
+	/**
+	 * Moves the watermark of the project forward, a watermark is never moved back.
+	 */
+	public synchronized void advance(String project, Instant watermark) {
+		Instant current = watermarks.get(project);
+		if (current != null && !watermark.isAfter(current)) {
+			return;
+		}
+		watermarks.put(project, watermark);
+		store();
+	}
+
+	/**
+	 * Starts tracking a run of the scheduled sync of the project.
+	 */
+	public Run start(String project) {
+		return new Run(project);
+	}
+
+	/**
+	 * Moves the watermark of a project forward as the events queued for the pages
+	 * of a run are processed, in the order of the pages: the watermark only moves
+	 * past a page once the events of that page, and of all the pages before it,
+	 * are completed.
+	 * <p>
+	 * An event is completed once it succeeds, or once it is removed from the
+	 * dead-letter queue, so a failed event holds the watermark back until it is
+	 * redelivered successfully or purged.
+	 */
+	public final class Run {
+
+		private final String project;
+		private final Deque<Page> pages = new ArrayDeque<>();
+
+		private Run(String project) {
+			this.project = project;
+		}
+
+		/**
+		 * @param watermark
+		 *            Where to move the watermark to once the events of the page are
+		 *            completed, {@code null} to leave it where it is.
+		 * @return the page to track the events queued for its issues with.
+		 */
+		public synchronized Page page(Instant watermark) {
+			Page page = new Page(watermark);
+			pages.addLast(page);
+			return page;
+		}
+
+		/**
+		 * Moves the watermark to the given one once the events of all the pages are
+		 * completed, e.g. to when the run started, as all the issues updated before
+		 * that were seen by now.
+		 */
+		public void finish(Instant watermark) {
+			page(watermark).queued();
+		}
+
+		private synchronized void completed() {
+			Instant watermark = null;
+			while (!pages.isEmpty() && pages.peekFirst().remaining.get() == 0) {
+				Page page = pages.removeFirst();
+				if (page.watermark != null) {
+					watermark = page.watermark;
+				}
+			}
+			if (watermark != null) {
+				advance(project, watermark);
+			}
+		}
+
+		public final class Page {
+
+			private final Instant watermark;
+			// the page itself counts as one until all its events are queued:
+			private final AtomicInteger remaining = new AtomicInteger(1);
+
+			private Page(Instant watermark) {
+				this.watermark = watermark;
+			}
+
+			/**
+			 * @return what to run once the event is completed, at most once.
+			 */
+			public Runnable event() {
+				remaining.incrementAndGet();
+				AtomicBoolean done = new AtomicBoolean();
+				return () -> {
+					if (done.compareAndSet(false, true)) {
+						done();
+					}
+				};
+			}
+
+			/**
+			 * Called once all the events of the page are queued.
+			 */
+			public void queued() {
+				done();
+			}
+
+			private void done() {
+				if (remaining.decrementAndGet() == 0) {
+					completed();
+				}
+			}
+		}
+	}
+
+	private void load(Path file) {
+		Properties properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		} catch (IOException e) {
+			throw new UncheckedIOException(
+					"Unable to read the sync watermarks from %s: %s".formatted(file, e.getMessage()), e);
+		}
+		for (String project : properties.stringPropertyNames()) {
+			try {
+				watermarks.put(project, Instant.parse(properties.getProperty(project).trim()));
+			} catch (DateTimeParseException e) {
+				Log.warnf("Ignoring the invalid sync watermark of the project %s: %s", project, e.getMessage());
+			}
+		}
+	}
+
+	private void store() {
+		if (file == null) {
+			return;
+		}
+		Properties properties = new Properties();
+		watermarks.forEach((project, watermark) -> properties.setProperty(project, watermark.toString()));
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try {
+			Files.createDirectories(file.getParent());
+			try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+				properties.store(writer, "The updated timestamp up to which the scheduled sync has seen the issues");
+			}
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			// the next run will just look further back than needed:
+			Log.warnf(e, "Unable to store the sync watermarks to %s: %s", file, e.getMessage());
+		}
+	}
+}
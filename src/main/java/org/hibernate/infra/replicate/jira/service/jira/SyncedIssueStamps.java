@@ -0,0 +1,125 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Remembers, for each source issue, the {@code updated} timestamp of the latest
+ * version of the issue whose fields were synced by an upsert, so that the
+ * sweeps (the scheduled sync and the sync jobs) can skip the upserts of the
+ * issues whose latest change was already synced, most often through the
+ * webhooks.
+ * <p>
+ * A stamp says nothing about the comments and the links of the issue: these
+ * are synced by other events, and changing them does not always move the
+ * {@code updated} timestamp of the issue, so the sweeps still sync them.
+ * <p>
+ * The stamps are kept in memory, and, if a file is given, loaded from it on
+ * start and stored to it on shutdown. Losing them only means that the next
+ * sweeps sync some issues that did not need it.
+ */
+public final class SyncedIssueStamps {
+
+	private final JiraConfig.SyncedIssueStamps config;
+	private final Path file;
+	// issue id -> epoch millis of the synced "updated" timestamp, the least
+	// recently synced first:
+	private final Map<Long, Long> stamps;
+
+	/**
+	 * @param file
+	 *            Where to store the stamps on shutdown, or {@code null} to only keep
+	 *            them in memory.
+	 */
+	SyncedIssueStamps(JiraConfig.SyncedIssueStamps config, Path file) {
+		this.config = config;
+		this.file = file;
+		this.stamps = new LinkedHashMap<>(16, 0.75f, false) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+				return size() > config.maxSize();
+			}
+		};
+		if (config.enabled() && file != null && Files.exists(file)) {
+			load(file);
+		}
+	}
+
+	static SyncedIssueStamps create(JiraConfig.JiraProjectGroup projectGroup, String name) {
+		JiraConfig.SyncJobs jobs = projectGroup.syncJobs();
+		return new SyncedIssueStamps(projectGroup.syncedIssueStamps(),
+				jobs.checkpoints() ? jobs.directory().resolve(name).resolve("synced-issues.bin") : null);
+	}
+
+	public synchronized void applied(Long issueId, ZonedDateTime updated) {
+		if (!config.enabled() || issueId == null) {
+			return;
+		}
+		long millis = updated.toInstant().toEpochMilli();
+		Long current = stamps.remove(issueId);
+		stamps.put(issueId, current == null ? millis : Math.max(current, millis));
+	}
+
+	/**
+	 * @return {@code true} if the fields of the version of the issue updated at
+	 *         the given time, or of a later one, were synced already.
+	 */
+	public synchronized boolean current(Long issueId, ZonedDateTime updated) {
+		if (!config.enabled() || issueId == null || updated == null) {
+			return false;
+		}
+		Long stamp = stamps.get(issueId);
+		return stamp != null && updated.toInstant().toEpochMilli() <= stamp;
+	}
+
+	public synchronized int size() {
+		return stamps.size();
+	}
+
+	public synchronized void close() {
+		if (!config.enabled() || file == null) {
+			return;
+		}
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try {
+			Files.createDirectories(file.getParent());
+			try (DataOutputStream output = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+				output.writeInt(stamps.size());
+				for (var stamp : stamps.entrySet()) {
+					output.writeLong(stamp.getKey());
+					output.writeLong(stamp.getValue());
+				}
+			}
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Log.warnf(e, "Unable to store the synced issue stamps to %s: %s", file, e.getMessage());
+		}
+	}
+
+	private void load(Path file) {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			int size = input.readInt();
+			for (int i = 0; i < size; i++) {
+				stamps.put(input.readLong(), input.readLong());
+			}
+		} catch (IOException e) {
+			// the issues will just get synced again:
+			Log.warnf(e, "Ignoring the unreadable synced issue stamps %s: %s", file, e.getMessage());
+			stamps.clear();
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket rate limiter, implemented as a generic cell rate algorithm
+ * (GCRA): instead of periodically adding tokens to the bucket, we keep track of
+ * the time at which the next token would be available, and compute it lazily
+ * whenever a token is requested. Up to {@code burst} tokens can be taken at once
+ * after the limiter was idle, after that the tokens are handed out evenly at the
+ * sustained rate.
+ */
+final class TokenBucketRateLimiter {
+
+	private final long intervalNanos;
+	private final long toleranceNanos;
+	// the time at which the bucket would be full again, if no more tokens are
+	// taken:
+	private long theoreticalArrivalTime;
+
+	TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+		if (permitsPerSecond <= 0) {
+			throw new IllegalArgumentException("Rate must be positive: %s".formatted(permitsPerSecond));
+		}
+		if (burst < 1) {
+			throw new IllegalArgumentException("Burst must be positive: %s".formatted(burst));
+		}
+		this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+		this.toleranceNanos = intervalNanos * (burst - 1);
+		this.theoreticalArrivalTime = System.nanoTime();
+	}
+
+	/**
+	 * Takes a token, waiting for it to become available if needed.
+	 * <p>
+	 * The token is reserved before waiting, so the threads that call this method
+	 * concurrently get their tokens in the order they asked for them.
+	 */
+	void acquire() throws InterruptedException {
+		acquire(1.0);
+	}
+
+	/**
+	 * @param rateFactor
+	 *            The fraction of the sustained rate to hand out this token at, to
+	 *            temporarily slow down without reconfiguring the limiter.
+	 */
+	void acquire(double rateFactor) throws InterruptedException {
+		long wait = reserve((long) (intervalNanos / rateFactor));
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+
+	/**
+	 * @return how long a call to {@link #acquire()} would have to wait for a token
+	 *         at this moment.
+	 */
+	synchronized Duration waitTime() {
+		long now = System.nanoTime();
+		return Duration.ofNanos(Math.max(0L, Math.max(theoreticalArrivalTime, now) - toleranceNanos - now));
+	}
+
+	private synchronized long reserve(long interval) {
+		long now = System.nanoTime();
+		long tat = Math.max(theoreticalArrivalTime, now);
+		theoreticalArrivalTime = tat + interval;
+		return tat - toleranceNanos - now;
+	}
+
+	@Override
+	public String toString() {
+		return "TokenBucketRateLimiter[" + "interval=" + Duration.ofNanos(intervalNanos) + ", burst="
+				+ (toleranceNanos / intervalNanos + 1) + ", waitTime=" + waitTime() + ']';
+	}
+}
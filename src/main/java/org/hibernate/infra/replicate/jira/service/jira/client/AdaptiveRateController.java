@@ -0,0 +1,176 @@
+package org.hibernate.infra.replicate.jira.service.jira.client;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Keeps track of the rate limit state of a single Jira instance, as reported by
+ * the Jira responses, and adjusts the rate at which we send the requests to it
+ * in an AIMD (additive increase, multiplicative decrease) fashion:
+ * <ul>
+ * <li>Each time Jira tells us that we are close to the quota
+ * ({@code X-RateLimit-NearLimit}, or a low {@code X-RateLimit-Remaining}), or
+ * that we went over it ({@code 429}), the rate is cut in half.</li>
+ * <li>Each successful response, that is not close to the quota, slowly brings the
+ * rate back up to the configured one.</li>
+ * <li>If Jira tells us when we can try again ({@code Retry-After}, or
+ * {@code X-RateLimit-Reset} once the quota is used up), the processing is paused
+ * until then.</li>
+ * </ul>
+ */
+public final class AdaptiveRateController {
+
+	private static final double MIN_RATE_FACTOR = 0.05;
+	private static final double DECREASE_FACTOR = 0.5;
+	private static final double INCREASE_STEP = 0.02;
+	private static final double LOW_REMAINING_RATIO = 0.1;
+	// there can be a number of requests in flight when we get close to the quota,
+	// and all of them will report it, we do not want to slow down for each one of
+	// them:
+	private static final long DECREASE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final String name;
+	private double rateFactor = 1.0;
+	private long pausedUntil;
+	private long lastDecrease;
+
+	public AdaptiveRateController(String name) {
+		this.name = name;
+		long now = System.nanoTime();
+		this.pausedUntil = now;
+		this.lastDecrease = now - DECREASE_INTERVAL_NANOS;
+	}
+
+	/**
+	 * Records a successful response.
+	 *
+	 * @param headers
+	 *            Gives access to the response headers by their name.
+	 */
+	public void onResponse(Function<String, String> headers) {
+		Optional<Integer> remaining = integer(headers.apply("X-RateLimit-Remaining"));
+		Optional<Integer> limit = integer(headers.apply("X-RateLimit-Limit"));
+		boolean nearLimit = "true".equalsIgnoreCase(headers.apply("X-RateLimit-NearLimit"))
+				|| (remaining.isPresent() && limit.isPresent() && remaining.get() < limit.get() * LOW_REMAINING_RATIO);
+
+		if (remaining.isPresent() && remaining.get() <= 0) {
+			pauseUntil(time(headers.apply("X-RateLimit-Reset")));
+		}
+		if (nearLimit) {
+			decrease("the quota is running low");
+		} else {
+			increase();
+		}
+	}
+
+	/**
+	 * Records a {@code 429 Too Many Requests} response.
+	 */
+	public void onRateLimited(JiraRestException exception) {
+		Optional<Instant> retryAfter = time(exception.header("Retry-After").orElse(null));
+		if (retryAfter.isEmpty()) {
+			retryAfter = time(exception.header("X-RateLimit-Reset").orElse(null));
+		}
+		pauseUntil(retryAfter);
+		decrease("the quota was exceeded");
+	}
+
+	/**
+	 * @return the fraction of the configured rate at which the requests should be
+	 *         sent at the moment.
+	 */
+	public synchronized double rateFactor() {
+		return rateFactor;
+	}
+
+	/**
+	 * @return how long to wait before sending the next request.
+	 */
+	public synchronized Duration pauseTime() {
+		return Duration.ofNanos(Math.max(0L, pausedUntil - System.nanoTime()));
+	}
+
+	private synchronized void increase() {
+		rateFactor = Math.min(1.0, rateFactor + INCREASE_STEP);
+	}
+
+	private synchronized void decrease(String reason) {
+		long now = System.nanoTime();
+		if (now - lastDecrease < DECREASE_INTERVAL_NANOS) {
+			return;
+		}
+		lastDecrease = now;
+		rateFactor = Math.max(MIN_RATE_FACTOR, rateFactor * DECREASE_FACTOR);
+		Log.infof("Slowing down the requests to %s since %s: rate is at %.0f%% of the configured one", name, reason,
+				rateFactor * 100);
+	}
+
+	private synchronized void pauseUntil(Optional<Instant> time) {
+		if (time.isEmpty()) {
+			return;
+		}
+		Duration pause = Duration.between(Instant.now(), time.get());
+		if (pause.isNegative()) {
+			return;
+		}
+		pausedUntil = Math.max(pausedUntil, System.nanoTime() + pause.toNanos());
+		Log.infof("Pausing the requests to %s for %s", name, pause);
+	}
+
+	private static Optional<Integer> integer(String value) {
+		if (value == null || value.isBlank()) {
+			return Optional.empty();
+		}
+		try {
+			return Optional.of(Integer.parseInt(value.trim()));
+		} catch (NumberFormatException e) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Header values can either be a number of seconds to wait, a timestamp in
+	 * seconds or a date in ISO-8601 or RFC-1123 format.
+	 */
+	static Optional<Instant> time(String value) {
+		if (value == null || value.isBlank()) {
+			return Optional.empty();
+		}
+		String trimmed = value.trim();
+		try {
+			long seconds = Long.parseLong(trimmed);
+			// large numbers are timestamps rather than delays:
+			return Optional.of(seconds > 1_000_000_000L
+					? Instant.ofEpochSecond(seconds)
+					: Instant.now().plusSeconds(seconds));
+		} catch (NumberFormatException e) {
+			// not a number, let's see if it is a date
+		}
+		try {
+			return Optional.of(OffsetDateTime.parse(trimmed).toInstant());
+		} catch (DateTimeParseException e) {
+			// not an ISO date
+		}
+		try {
+			return Optional.of(ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+		} catch (DateTimeParseException e) {
+			Log.debugf("Unable to parse the rate limit header value: %s", value);
+			return Optional.empty();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "AdaptiveRateController[" + "name=" + name + ", rateFactor=" + rateFactor() + ", pauseTime="
+				+ pauseTime() + ']';
+	}
+}
@@ -0,0 +1,86 @@
+package org.hibernate.infra.replicate.jira.service.jira.client;
+
+import io.smallrye.mutiny.Context;
+
+/**
+ * Allows the event handlers to take care of the retries of the failed REST API
+ * calls themselves, instead of waiting in the client between the attempts.
+ * <p>
+ * While the action passed to {@link #run(boolean, Runnable)} is executed, the
+ * client does not retry the calls that failed with a retryable problem:
+ * instead, it throws {@link DeferredRetryException}, so that the entire event
+ * can be retried later without blocking the thread. Once the handler runs out
+ * of attempts, the original exception is thrown right away.
+ * <p>
+ * The asynchronous calls are not always made by the thread that built them,
+ * e.g. the calls chained to the previous ones, so the asynchronous pipelines
+ * carry the retry behaviour in their {@link #context() context} instead.
+ */
+public final class DeferredRetries {
+
+	private static final ThreadLocal<Boolean> CAN_DEFER = new ThreadLocal<>();
+	private static final String CONTEXT_KEY = DeferredRetries.class.getName();
+
+	private DeferredRetries() {
+	}
+
+	/**
+	 * @param canDefer
+	 *            Whether a failed call should result in a
+	 *            {@link DeferredRetryException}, or whether the original exception
+	 *            should be thrown as there will be no more attempts.
+	 */
+	public static void run(boolean canDefer, Runnable action) {
+		Boolean previous = CAN_DEFER.get();
+		CAN_DEFER.set(canDefer);
+		try {
+			action.run();
+		} finally {
+			if (previous == null) {
+				CAN_DEFER.remove();
+			} else {
+				CAN_DEFER.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * @return the action that runs with the same retry behaviour as the current
+	 *         thread, e.g. when part of the event is processed by another thread.
+	 */
+	public static Runnable propagate(Runnable action) {
+		Boolean canDefer = CAN_DEFER.get();
+		if (canDefer == null) {
+			return action;
+		}
+		return () -> run(canDefer, action);
+	}
+
+	/**
+	 * @return the context to subscribe to an asynchronous pipeline with, so that
+	 *         its calls are retried the same way as the calls of the current
+	 *         thread.
+	 */
+	public static Context context() {
+		Boolean canDefer = CAN_DEFER.get();
+		return canDefer == null ? Context.empty() : Context.of(CONTEXT_KEY, canDefer);
+	}
+
+	/**
+	 * @return whether a failed call made with the given context should result in a
+	 *         {@link DeferredRetryException}, or {@code null} if the retries are
+	 *         not deferred to the caller.
+	 */
+	static Boolean canDefer(Context context) {
+		Boolean canDefer = CAN_DEFER.get();
+		return canDefer != null ? canDefer : context.getOrElse(CONTEXT_KEY, () -> null);
+	}
+
+	static boolean isActive() {
+		return CAN_DEFER.get() != null;
+	}
+
+	static boolean canDefer() {
+		return Boolean.TRUE.equals(CAN_DEFER.get());
+	}
+}
@@ -0,0 +1,17 @@
+package org.hibernate.infra.replicate.jira.service.jira.client;
+
+/**
+ * Thrown instead of retrying a failed REST API call in place, when retries are
+ * {@link DeferredRetries deferred} to the event handler.
+ */
+public class DeferredRetryException extends RuntimeException {
+
+	public DeferredRetryException(JiraRestException cause) {
+		super(cause.getMessage(), cause);
+	}
+
+	@Override
+	public synchronized JiraRestException getCause() {
+		return (JiraRestException) super.getCause();
+	}
+}
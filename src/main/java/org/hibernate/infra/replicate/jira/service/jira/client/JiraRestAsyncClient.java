@@ -0,0 +1,113 @@
+package org.hibernate.infra.replicate.jira.service.jira.client;
+
+import java.net.URI;
+import java.util.List;
+
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComment;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComments;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueLink;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueResponse;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraRemoteLink;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraTransition;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraTransitions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.rest.client.reactive.ClientExceptionMapper;
+import io.quarkus.rest.client.reactive.jackson.ClientObjectMapper;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * The non-blocking counterpart of the {@link JiraRestClient}. Requests are
+ * executed on the event loop, so that waiting for the Jira response does not
+ * hold any thread, and the independent requests of an event can be sent at the
+ * same time.
+ * <p>
+ * Only the operations used by the
+ * {@link org.hibernate.infra.replicate.jira.service.jira.handler.JiraAsyncEventHandler
+ * asynchronous handlers} are available.
+ */
+public interface JiraRestAsyncClient {
+
+	@GET
+	@Path("/issue/{key}")
+	Uni<JiraIssue> getIssue(@PathParam("key") String key);
+
+	@GET
+	@Path("/issue/{id}")
+	Uni<JiraIssue> getIssue(@PathParam("id") Long id);
+
+	/**
+	 * @see JiraRestClient#getIssue(String, List)
+	 */
+	@GET
+	@Path("/issue/{id}")
+	Uni<JiraIssue> getIssue(@PathParam("id") Long id, @QueryParam("fields") List<String> fields);
+
+	@PUT
+	@Path("/issue/{key}")
+	@Consumes(MediaType.APPLICATION_JSON)
+	Uni<JiraIssueResponse> update(@PathParam("key") String key, JiraIssue issue);
+
+	@POST
+	@Path("/issue/{key}/remotelink")
+	@Consumes(MediaType.APPLICATION_JSON)
+	Uni<Void> upsertRemoteLink(@PathParam("key") String key, JiraRemoteLink remoteLink);
+
+	@GET
+	@Path("/issue/{issueId}/comment/{commentId}")
+	Uni<JiraComment> getComment(@PathParam("issueId") Long issueId, @PathParam("commentId") Long commentId);
+
+	@GET
+	@Path("/issue/{issueKey}/comment")
+	Uni<JiraComments> getComments(@PathParam("issueKey") String issueKey, @QueryParam("startAt") int startAt,
+			@QueryParam("maxResults") int maxResults);
+
+	@POST
+	@Path("/issue/{issueKey}/comment")
+	@Consumes(MediaType.APPLICATION_JSON)
+	Uni<JiraIssueResponse> create(@PathParam("issueKey") String issueKey, JiraComment comment);
+
+	@PUT
+	@Path("/issue/{issueKey}/comment/{commentId}")
+	@Consumes(MediaType.APPLICATION_JSON)
+	Uni<JiraIssueResponse> update(@PathParam("issueKey") String issueKey, @PathParam("commentId") String commentId,
+			JiraComment comment);
+
+	@DELETE
+	@Path("/issue/{issueKey}/comment/{commentId}")
+	Uni<Void> deleteComment(@PathParam("issueKey") String issueKey, @PathParam("commentId") String commentId);
+
+	@POST
+	@Path("/issueLink")
+	@Consumes(MediaType.APPLICATION_JSON)
+	Uni<Void> upsertIssueLink(JiraIssueLink link);
+
+	@POST
+	@Path("/issue/{issueKey}/transitions")
+	Uni<Void> transition(@PathParam("issueKey") String issueKey, JiraTransition transition);
+
+	@GET
+	@Path("/issue/{issueKey}/transitions")
+	Uni<JiraTransitions> availableTransitions(@PathParam("issueKey") String issueKey);
+
+	@ClientObjectMapper
+	static ObjectMapper objectMapper(ObjectMapper defaultObjectMapper) {
+		return JiraRestClient.objectMapper(defaultObjectMapper);
+	}
+
+	@ClientExceptionMapper
+	static RuntimeException toException(URI uri, Response response) {
+		return JiraRestClient.toException(uri, response);
+	}
+}
@@ -8,6 +8,7 @@ import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComments;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueBulk;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueBulkResponse;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueCount;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueLink;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueLinkTypes;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueResponse;
@@ -56,6 +57,24 @@ public interface JiraRestClient {
 	@Path("/issue/{id}")
 	JiraIssue getIssue(@PathParam("id") Long id);
 
+	/**
+	 * @param fields
+	 *            The fields to return, to avoid transferring (and parsing) the
+	 *            entire issue when only a few fields are needed. Issue id, key and
+	 *            self link are always returned. Use {@code *all} to get all the
+	 *            fields, and prefix a field with a minus to exclude it.
+	 */
+	@GET
+	@Path("/issue/{key}")
+	JiraIssue getIssue(@PathParam("key") String key, @QueryParam("fields") List<String> fields);
+
+	/**
+	 * @see #getIssue(String, List)
+	 */
+	@GET
+	@Path("/issue/{id}")
+	JiraIssue getIssue(@PathParam("id") Long id, @QueryParam("fields") List<String> fields);
+
 	@POST
 	@Path("/issue")
 	@Consumes(MediaType.APPLICATION_JSON)
@@ -163,6 +182,14 @@ public interface JiraRestClient {
 	JiraIssues find(@QueryParam("jql") String query, @QueryParam("startAt") int startAt,
 			@QueryParam("maxResults") int maxResults);
 
+	/**
+	 * The count is approximate: the recently updated issues may not be reflected
+	 * in it yet.
+	 */
+	@POST
+	@Path("/search/approximate-count")
+	JiraIssueCount countIssues(JiraIssueCount query);
+
 	@POST
 	@Path("/issue/{issueKey}/transitions")
 	void transition(@PathParam("issueKey") String issueKey, JiraTransition transition);
@@ -14,6 +14,7 @@ import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComments;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueBulk;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueBulkResponse;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueCount;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueLink;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueLinkTypes;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueResponse;
@@ -30,17 +31,92 @@ import org.jboss.resteasy.reactive.RestResponse;
 import org.jboss.resteasy.reactive.client.api.ClientLogger;
 import org.jboss.resteasy.reactive.client.api.LoggingScope;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.logging.Log;
 import io.quarkus.rest.client.reactive.QuarkusRestClientBuilder;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import io.vertx.core.MultiMap;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ContextResolver;
 
 public class JiraRestClientBuilder {
 
+	private static final int RETRIES = 5;
+	private static final Duration WAIT_BETWEEN_RETRIES = Duration.of(2, ChronoUnit.SECONDS);
+
 	public static JiraRestClient of(JiraConfig.Instance jira) {
+		return of(jira, new AdaptiveRateController(jira.apiUri().getHost()));
+	}
+
+	/**
+	 * @param rateController
+	 *            The controller to report the rate limit state of the Jira
+	 *            instance to. Can be shared by the clients that talk to the same
+	 *            Jira instance.
+	 */
+	public static JiraRestClient of(JiraConfig.Instance jira, AdaptiveRateController rateController) {
+		return new JiraRestClientWithRetry(builder(jira, rateController).build(JiraRestClient.class), rateController);
+	}
+
+	/**
+	 * @param objectMapper
+	 *            The mapper to read the Jira responses with, instead of the one
+	 *            {@link JiraRestClient#objectMapper(ObjectMapper) configured for
+	 *            all the clients}, e.g. a {@link LeanDeserialization lean} one.
+	 */
+	public static JiraRestClient of(JiraConfig.Instance jira, AdaptiveRateController rateController,
+			ObjectMapper objectMapper) {
+		return new JiraRestClientWithRetry(builder(jira, rateController)
+				.register(new FixedObjectMapperResolver(objectMapper)).build(JiraRestClient.class), rateController);
+	}
+
+	/**
+	 * @param rateController
+	 *            The controller to report the rate limit state of the Jira
+	 *            instance to. Should be the same as the one of the blocking client
+	 *            for the same Jira instance.
+	 */
+	public static JiraRestAsyncClient async(JiraConfig.Instance jira, AdaptiveRateController rateController) {
+		return new JiraRestAsyncClientWithRetry(builder(jira, rateController).build(JiraRestAsyncClient.class),
+				rateController);
+	}
+
+	/**
+	 * @see #of(JiraConfig.Instance, AdaptiveRateController, ObjectMapper)
+	 */
+	public static JiraRestAsyncClient async(JiraConfig.Instance jira, AdaptiveRateController rateController,
+			ObjectMapper objectMapper) {
+		return new JiraRestAsyncClientWithRetry(builder(jira, rateController)
+				.register(new FixedObjectMapperResolver(objectMapper)).build(JiraRestAsyncClient.class),
+				rateController);
+	}
+
+	/**
+	 * @return an asynchronous client that executes the calls of the blocking client
+	 *         on a worker thread, e.g. for the clients that only exist in a
+	 *         blocking form, like the mock ones.
+	 */
+	public static JiraRestAsyncClient async(JiraRestClient blocking) {
+		return new BlockingJiraRestAsyncClient(blocking);
+	}
+
+	/**
+	 * @return an asynchronous client that executes the calls of the blocking client
+	 *         on a worker thread, and retries them as the REST clients do, for the
+	 *         blocking clients that do not retry the calls on their own.
+	 */
+	public static JiraRestAsyncClient async(JiraRestClient blocking, AdaptiveRateController rateController) {
+		return new JiraRestAsyncClientWithRetry(new BlockingJiraRestAsyncClient(blocking), rateController);
+	}
+
+	private static QuarkusRestClientBuilder builder(JiraConfig.Instance jira, AdaptiveRateController rateController) {
 		JiraConfig.JiraUser jiraUser = jira.apiUser();
 
 		Map<String, String> headers = jira.loginKind().headers(jiraUser.email(), jiraUser.token());
@@ -52,11 +128,76 @@ public class JiraRestClientBuilder {
 						clientOutgoingHeaders.add(entry.getKey(), entry.getValue());
 					}
 					return clientOutgoingHeaders;
-				});
+				}).register(new RateLimitHeadersFilter(rateController));
 		if (jira.logRequests()) {
 			builder.clientLogger(CustomClientLogger.INSTANCE).loggingScope(LoggingScope.REQUEST_RESPONSE);
 		}
-		return new JiraRestClientWithRetry(builder.build(JiraRestClient.class));
+		return builder;
+	}
+
+	private static boolean shouldRetryOnException(Throwable throwable, AdaptiveRateController rateController) {
+		if (throwable instanceof JiraRestException exception) {
+			if (exception.statusCode() == RestResponse.StatusCode.UNAUTHORIZED
+					|| exception.statusCode() == RestResponse.StatusCode.FORBIDDEN) {
+				Log.warnf(exception,
+						"Will make an attempt to retry the REST API call because of the authentication problem. Response headers %s",
+						exception.headers());
+				return true;
+			}
+			if (exception.statusCode() == RestResponse.StatusCode.NOT_FOUND) {
+				// not found is fine :)
+				Log.warn("Will make no retry attempt of a REST API call for a NOT_FOUND response.");
+				return false;
+			}
+			if (Response.Status.Family.SERVER_ERROR.equals(Response.Status.Family.familyOf(exception.statusCode()))) {
+				Log.warnf(exception,
+						"Will make an attempt to retry the REST API call because of the internal server problem. Response headers %s",
+						exception.headers());
+				return true;
+			}
+			if (Response.Status.Family.CLIENT_ERROR.equals(Response.Status.Family.familyOf(exception.statusCode()))
+					&& exception.getMessage().contains("\"assignee\"")) {
+				// we probably were trying to assign to an inactive or incorrectly configured
+				// user and the request failed,
+				// no point in retrying that ...
+				return false;
+			}
+			if (Response.Status.TOO_MANY_REQUESTS.getStatusCode() == exception.statusCode()) {
+				// we've hit the rate limit, the controller will slow everything down and tell
+				// us how long to wait before the retry:
+				rateController.onRateLimited(exception);
+				Log.warnf("Will make an attempt to retry the REST API call after hitting the rate limit. Response headers %s",
+						exception.headers());
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return how long to wait before retrying the REST API call.
+	 */
+	private static Duration waitBeforeRetry(AdaptiveRateController rateController) {
+		// if Jira asked us to wait for longer, then we'd better do so:
+		Duration pause = rateController.pauseTime();
+		return pause.compareTo(WAIT_BETWEEN_RETRIES) > 0 ? pause : WAIT_BETWEEN_RETRIES;
+	}
+
+	private static class RateLimitHeadersFilter implements ClientResponseFilter {
+		private final AdaptiveRateController rateController;
+
+		private RateLimitHeadersFilter(AdaptiveRateController rateController) {
+			this.rateController = rateController;
+		}
+
+		@Override
+		public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+			// failed requests end up as JiraRestException and are handled by the retry
+			// logic:
+			if (responseContext.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL) {
+				rateController.onResponse(responseContext::getHeaderString);
+			}
+		}
 	}
 
 	private static class CustomClientLogger implements ClientLogger {
@@ -131,19 +272,32 @@ public class JiraRestClientBuilder {
 	private static class JiraRestClientWithRetry implements JiraRestClient {
 
 		private final JiraRestClient delegate;
+		private final AdaptiveRateController rateController;
+		private final SingleFlight singleFlight = new SingleFlight();
 
-		private JiraRestClientWithRetry(JiraRestClient delegate) {
+		private JiraRestClientWithRetry(JiraRestClient delegate, AdaptiveRateController rateController) {
 			this.delegate = delegate;
+			this.rateController = rateController;
 		}
 
 		@Override
 		public JiraIssue getIssue(String key) {
-			return withRetry(() -> delegate.getIssue(key));
+			return singleFlight.execute(() -> withRetry(() -> delegate.getIssue(key)), "getIssue", key);
 		}
 
 		@Override
 		public JiraIssue getIssue(Long id) {
-			return delegate.getIssue(id);
+			return singleFlight.execute(() -> delegate.getIssue(id), "getIssue", id);
+		}
+
+		@Override
+		public JiraIssue getIssue(String key, List<String> fields) {
+			return singleFlight.execute(() -> withRetry(() -> delegate.getIssue(key, fields)), "getIssue", key, fields);
+		}
+
+		@Override
+		public JiraIssue getIssue(Long id, List<String> fields) {
+			return singleFlight.execute(() -> delegate.getIssue(id, fields), "getIssue", id, fields);
 		}
 
 		@Override
@@ -169,22 +323,26 @@ public class JiraRestClientBuilder {
 
 		@Override
 		public JiraComment getComment(Long issueId, Long commentId) {
-			return withRetry(() -> delegate.getComment(issueId, commentId));
+			return singleFlight.execute(() -> withRetry(() -> delegate.getComment(issueId, commentId)), "getComment",
+					issueId, commentId);
 		}
 
 		@Override
 		public JiraComment getComment(String issueKey, Long commentId) {
-			return withRetry(() -> delegate.getComment(issueKey, commentId));
+			return singleFlight.execute(() -> withRetry(() -> delegate.getComment(issueKey, commentId)), "getComment",
+					issueKey, commentId);
 		}
 
 		@Override
 		public JiraComments getComments(Long issueId, int startAt, int maxResults) {
-			return withRetry(() -> delegate.getComments(issueId, startAt, maxResults));
+			return singleFlight.execute(() -> withRetry(() -> delegate.getComments(issueId, startAt, maxResults)),
+					"getComments", issueId, startAt, maxResults);
 		}
 
 		@Override
 		public JiraComments getComments(String issueKey, int startAt, int maxResults) {
-			return withRetry(() -> delegate.getComments(issueKey, startAt, maxResults));
+			return singleFlight.execute(() -> withRetry(() -> delegate.getComments(issueKey, startAt, maxResults)),
+					"getComments", issueKey, startAt, maxResults);
 		}
 
 		@Override
@@ -219,12 +377,12 @@ public class JiraRestClientBuilder {
 
 		@Override
 		public List<JiraUser> findUser(String email) {
-			return withRetry(() -> delegate.findUser(email));
+			return singleFlight.execute(() -> withRetry(() -> delegate.findUser(email)), "findUser", email);
 		}
 
 		@Override
 		public JiraIssueLink getIssueLink(Long id) {
-			return withRetry(() -> delegate.getIssueLink(id));
+			return singleFlight.execute(() -> withRetry(() -> delegate.getIssueLink(id)), "getIssueLink", id);
 		}
 
 		@Override
@@ -252,6 +410,11 @@ public class JiraRestClientBuilder {
 			return withRetry(() -> delegate.find(query, startAt, maxResults));
 		}
 
+		@Override
+		public JiraIssueCount countIssues(JiraIssueCount query) {
+			return withRetry(() -> delegate.countIssues(query));
+		}
+
 		@Override
 		public void transition(String issueKey, JiraTransition transition) {
 			withRetry(() -> delegate.transition(issueKey, transition));
@@ -259,7 +422,8 @@ public class JiraRestClientBuilder {
 
 		@Override
 		public JiraTransitions availableTransitions(String issueKey) {
-			return withRetry(() -> delegate.availableTransitions(issueKey));
+			return singleFlight.execute(() -> withRetry(() -> delegate.availableTransitions(issueKey)),
+					"availableTransitions", issueKey);
 		}
 
 		@Override
@@ -269,12 +433,12 @@ public class JiraRestClientBuilder {
 
 		@Override
 		public JiraVersion version(Long id) {
-			return withRetry(() -> delegate.version(id));
+			return singleFlight.execute(() -> withRetry(() -> delegate.version(id)), "version", id);
 		}
 
 		@Override
 		public List<JiraVersion> versions(String projectKey) {
-			return withRetry(() -> delegate.versions(projectKey));
+			return singleFlight.execute(() -> withRetry(() -> delegate.versions(projectKey)), "versions", projectKey);
 		}
 
 		@Override
@@ -297,9 +461,6 @@ public class JiraRestClientBuilder {
 			return withRetry(() -> delegate.project(projectId));
 		}
 
-		private static final int RETRIES = 5;
-		private static final Duration WAIT_BETWEEN_RETRIES = Duration.of(2, ChronoUnit.SECONDS);
-
 		private void withRetry(Runnable runnable) {
 			withRetry(() -> {
 				runnable.run();
@@ -317,57 +478,234 @@ public class JiraRestClientBuilder {
 				try {
 					return supplier.get();
 				} catch (RuntimeException exception) {
-					if (!shouldRetryOnException(exception)) {
+					if (!shouldRetryOnException(exception, rateController)) {
 						throw exception;
 					}
+					if (DeferredRetries.isActive()) {
+						// the caller will retry later on its own, without blocking the thread:
+						throw DeferredRetries.canDefer()
+								? new DeferredRetryException((JiraRestException) exception)
+								: exception;
+					}
 					e = exception;
 				}
 				try {
-					Thread.sleep(WAIT_BETWEEN_RETRIES);
+					Thread.sleep(waitBeforeRetry(rateController));
 				} catch (InterruptedException exception) {
 					Thread.currentThread().interrupt();
 				}
 			}
 			throw e;
 		}
+	}
 
-		private boolean shouldRetryOnException(Throwable throwable) {
-			if (throwable instanceof JiraRestException exception) {
-				if (exception.statusCode() == RestResponse.StatusCode.UNAUTHORIZED
-						|| exception.statusCode() == RestResponse.StatusCode.FORBIDDEN) {
-					Log.warnf(exception,
-							"Will make an attempt to retry the REST API call because of the authentication problem. Response headers %s",
-							exception.headers());
-					return true;
-				}
-				if (exception.statusCode() == RestResponse.StatusCode.NOT_FOUND) {
-					// not found is fine :)
-					Log.warn("Will make no retry attempt of a REST API call for a NOT_FOUND response.");
-					return false;
-				}
-				if (Response.Status.Family.SERVER_ERROR
-						.equals(Response.Status.Family.familyOf(exception.statusCode()))) {
-					Log.warnf(exception,
-							"Will make an attempt to retry the REST API call because of the internal server problem. Response headers %s",
-							exception.headers());
-					return true;
-				}
-				if (Response.Status.Family.CLIENT_ERROR.equals(Response.Status.Family.familyOf(exception.statusCode()))
-						&& exception.getMessage().contains("\"assignee\"")) {
-					// we probably were trying to assign to an inactive or incorrectly configured
-					// user and the request failed,
-					// no point in retrying that ...
-					return false;
-				}
-				if (Response.Status.TOO_MANY_REQUESTS.getStatusCode() == exception.statusCode()) {
-					// we probably were trying to assign to an inactive or incorrectly configured
-					// user and the request failed,
-					// no point in retrying that ...
-					return false;
-				}
-			}
-			return false;
+	private static class JiraRestAsyncClientWithRetry implements JiraRestAsyncClient {
+
+		private final JiraRestAsyncClient delegate;
+		private final AdaptiveRateController rateController;
+		private final SingleFlight singleFlight = new SingleFlight();
+
+		private JiraRestAsyncClientWithRetry(JiraRestAsyncClient delegate, AdaptiveRateController rateController) {
+			this.delegate = delegate;
+			this.rateController = rateController;
+		}
+
+		@Override
+		public Uni<JiraIssue> getIssue(String key) {
+			return singleFlight.executeAsync(() -> withRetry(() -> delegate.getIssue(key)), "getIssue", key);
+		}
+
+		@Override
+		public Uni<JiraIssue> getIssue(Long id) {
+			return singleFlight.executeAsync(() -> delegate.getIssue(id), "getIssue", id);
+		}
+
+		@Override
+		public Uni<JiraIssue> getIssue(Long id, List<String> fields) {
+			return singleFlight.executeAsync(() -> delegate.getIssue(id, fields), "getIssue", id, fields);
+		}
+
+		@Override
+		public Uni<JiraIssueResponse> update(String key, JiraIssue issue) {
+			// it might be that mapped user is wrong so we don't want to keep sending it
+			return withRetry(() -> delegate.update(key, issue), 2);
+		}
+
+		@Override
+		public Uni<Void> upsertRemoteLink(String key, JiraRemoteLink remoteLink) {
+			return withRetry(() -> delegate.upsertRemoteLink(key, remoteLink));
+		}
+
+		@Override
+		public Uni<JiraComment> getComment(Long issueId, Long commentId) {
+			return singleFlight.executeAsync(() -> withRetry(() -> delegate.getComment(issueId, commentId)),
+					"getComment", issueId, commentId);
+		}
+
+		@Override
+		public Uni<JiraComments> getComments(String issueKey, int startAt, int maxResults) {
+			return singleFlight.executeAsync(() -> withRetry(() -> delegate.getComments(issueKey, startAt, maxResults)),
+					"getComments", issueKey, startAt, maxResults);
+		}
+
+		@Override
+		public Uni<JiraIssueResponse> create(String issueKey, JiraComment comment) {
+			return withRetry(() -> delegate.create(issueKey, comment));
+		}
+
+		@Override
+		public Uni<JiraIssueResponse> update(String issueKey, String commentId, JiraComment comment) {
+			return withRetry(() -> delegate.update(issueKey, commentId, comment));
+		}
+
+		@Override
+		public Uni<Void> deleteComment(String issueKey, String commentId) {
+			return withRetry(() -> delegate.deleteComment(issueKey, commentId));
+		}
+
+		@Override
+		public Uni<Void> upsertIssueLink(JiraIssueLink link) {
+			return withRetry(() -> delegate.upsertIssueLink(link));
+		}
+
+		@Override
+		public Uni<Void> transition(String issueKey, JiraTransition transition) {
+			return withRetry(() -> delegate.transition(issueKey, transition));
+		}
+
+		@Override
+		public Uni<JiraTransitions> availableTransitions(String issueKey) {
+			return singleFlight.executeAsync(() -> withRetry(() -> delegate.availableTransitions(issueKey)),
+					"availableTransitions", issueKey);
+		}
+
+		private <T> Uni<T> withRetry(Supplier<Uni<T>> call) {
+			return withRetry(call, RETRIES);
+		}
+
+		/**
+		 * Same as the blocking retries, but instead of sleeping between the attempts,
+		 * the next attempt is simply subscribed to later. When the retries are
+		 * {@link DeferredRetries deferred} to the event handler, whether by the thread
+		 * building the call or through the context of the pipeline, the call is not
+		 * retried here at all.
+		 */
+		private <T> Uni<T> withRetry(Supplier<Uni<T>> call, int retries) {
+			Boolean callerCanDefer = DeferredRetries.isActive() ? DeferredRetries.canDefer() : null;
+			return Uni.createFrom().context(context -> {
+				Boolean canDefer = callerCanDefer != null ? callerCanDefer : DeferredRetries.canDefer(context);
+				return Uni.createFrom().deferred(call::get).onFailure().recoverWithUni(failure -> {
+					if (retries <= 1 || !shouldRetryOnException(failure, rateController)) {
+						return Uni.createFrom().failure(failure);
+					}
+					if (canDefer != null) {
+						// the event handler will retry later on its own, without holding its thread:
+						return Uni.createFrom().failure(
+								canDefer ? new DeferredRetryException((JiraRestException) failure) : failure);
+					}
+					return Uni.createFrom().voidItem().onItem().delayIt().by(waitBeforeRetry(rateController))
+							.onItem().transformToUni(ignored -> withRetry(call, retries - 1));
+				});
+			});
 		}
 	}
 
+	private static class FixedObjectMapperResolver implements ContextResolver<ObjectMapper> {
+
+		private final ObjectMapper objectMapper;
+
+		private FixedObjectMapperResolver(ObjectMapper objectMapper) {
+			this.objectMapper = objectMapper;
+		}
+
+		@Override
+		public ObjectMapper getContext(Class<?> type) {
+			return objectMapper;
+		}
+	}
+
+	private static class BlockingJiraRestAsyncClient implements JiraRestAsyncClient {
+
+		private final JiraRestClient delegate;
+
+		private BlockingJiraRestAsyncClient(JiraRestClient delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Uni<JiraIssue> getIssue(String key) {
+			return blocking(() -> delegate.getIssue(key));
+		}
+
+		@Override
+		public Uni<JiraIssue> getIssue(Long id) {
+			return blocking(() -> delegate.getIssue(id));
+		}
+
+		@Override
+		public Uni<JiraIssue> getIssue(Long id, List<String> fields) {
+			return blocking(() -> delegate.getIssue(id, fields));
+		}
+
+		@Override
+		public Uni<JiraIssueResponse> update(String key, JiraIssue issue) {
+			return blocking(() -> delegate.update(key, issue));
+		}
+
+		@Override
+		public Uni<Void> upsertRemoteLink(String key, JiraRemoteLink remoteLink) {
+			return blocking(() -> delegate.upsertRemoteLink(key, remoteLink));
+		}
+
+		@Override
+		public Uni<JiraComment> getComment(Long issueId, Long commentId) {
+			return blocking(() -> delegate.getComment(issueId, commentId));
+		}
+
+		@Override
+		public Uni<JiraComments> getComments(String issueKey, int startAt, int maxResults) {
+			return blocking(() -> delegate.getComments(issueKey, startAt, maxResults));
+		}
+
+		@Override
+		public Uni<JiraIssueResponse> create(String issueKey, JiraComment comment) {
+			return blocking(() -> delegate.create(issueKey, comment));
+		}
+
+		@Override
+		public Uni<JiraIssueResponse> update(String issueKey, String commentId, JiraComment comment) {
+			return blocking(() -> delegate.update(issueKey, commentId, comment));
+		}
+
+		@Override
+		public Uni<Void> deleteComment(String issueKey, String commentId) {
+			return blocking(() -> delegate.deleteComment(issueKey, commentId));
+		}
+
+		@Override
+		public Uni<Void> upsertIssueLink(JiraIssueLink link) {
+			return blocking(() -> delegate.upsertIssueLink(link));
+		}
+
+		@Override
+		public Uni<Void> transition(String issueKey, JiraTransition transition) {
+			return blocking(() -> delegate.transition(issueKey, transition));
+		}
+
+		@Override
+		public Uni<JiraTransitions> availableTransitions(String issueKey) {
+			return blocking(() -> delegate.availableTransitions(issueKey));
+		}
+
+		private static Uni<Void> blocking(Runnable runnable) {
+			return blocking(() -> {
+				runnable.run();
+				return null;
+			});
+		}
+
+		private static <T> Uni<T> blocking(Supplier<T> supplier) {
+			return Uni.createFrom().item(supplier).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+		}
+	}
 }
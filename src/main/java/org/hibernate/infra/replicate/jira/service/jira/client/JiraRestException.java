@@ -2,6 +2,7 @@ package org.hibernate.infra.replicate.jira.service.jira.client;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public class JiraRestException extends RuntimeException {
 	private final int statusCode;
@@ -20,4 +21,20 @@ public class JiraRestException extends RuntimeException {
 	public Map<String, List<Object>> headers() {
 		return headers;
 	}
+
+	/**
+	 * @return the first value of the response header, header names are matched
+	 *         ignoring the case.
+	 */
+	public Optional<String> header(String name) {
+		if (headers == null) {
+			return Optional.empty();
+		}
+		for (var entry : headers.entrySet()) {
+			if (name.equalsIgnoreCase(entry.getKey()) && entry.getValue() != null && !entry.getValue().isEmpty()) {
+				return Optional.ofNullable(entry.getValue().get(0)).map(Object::toString);
+			}
+		}
+		return Optional.empty();
+	}
 }
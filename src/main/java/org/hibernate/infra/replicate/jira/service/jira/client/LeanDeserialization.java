@@ -0,0 +1,94 @@
+package org.hibernate.infra.replicate.jira.service.jira.client;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.service.jira.model.JiraBaseObject;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraFields;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
+
+/**
+ * Reads the Jira issues without keeping the properties that are not mapped to a
+ * field of the model, except for the few that we actually use.
+ * <p>
+ * Issues can have hundreds of custom fields, and by default each of them ends
+ * up in the {@link JiraBaseObject#properties() other properties} of the issue
+ * fields, as maps and lists of maps, only to be thrown away right after. In the
+ * lean mode, these properties are skipped while parsing the response instead.
+ * The other objects (users, issue types, etc.) have just a few properties, and
+ * keep all of them as before.
+ */
+public final class LeanDeserialization {
+
+	private LeanDeserialization() {
+	}
+
+	/**
+	 * @return the names of the issue (fields) properties that the sync reads, and
+	 *         that should be kept in the lean mode, i.e. the epic custom fields.
+	 */
+	public static Set<String> keptIssueProperties(JiraConfig.IssueTypeValueMapping issueTypes) {
+		Set<String> kept = new HashSet<>();
+		issueTypes.epicLinkKeyCustomFieldName().ifPresent(kept::add);
+		issueTypes.epicLinkSourceLabelCustomFieldName().ifPresent(kept::add);
+		issueTypes.epicLinkDestinationLabelCustomFieldName().ifPresent(kept::add);
+		return Set.copyOf(kept);
+	}
+
+	/**
+	 * @param objectMapper
+	 *            The mapper to base the lean one on, e.g. the one
+	 *            {@link JiraRestClient#objectMapper(ObjectMapper) configured for
+	 *            the client}.
+	 * @param keptIssueProperties
+	 *            The properties of the issues that are not mapped to a field, but
+	 *            that should be kept nevertheless.
+	 */
+	public static ObjectMapper objectMapper(ObjectMapper objectMapper, Set<String> keptIssueProperties) {
+		// without the "any setter", the properties that are not mapped to a field are
+		// passed to the problem handler, which decides whether to keep or to skip them:
+		return objectMapper.copy().addMixIn(JiraBaseObject.class, WithoutAnySetter.class)
+				.addHandler(new KeepPropertiesHandler(keptIssueProperties));
+	}
+
+	private static boolean isLean(JiraBaseObject object) {
+		return object instanceof JiraIssue || object instanceof JiraFields;
+	}
+
+	private static final class KeepPropertiesHandler extends DeserializationProblemHandler {
+		private final Set<String> keptIssueProperties;
+
+		private KeepPropertiesHandler(Set<String> keptIssueProperties) {
+			this.keptIssueProperties = keptIssueProperties;
+		}
+
+		@Override
+		public boolean handleUnknownProperty(DeserializationContext ctxt, JsonParser p,
+				JsonDeserializer<?> deserializer, Object beanOrClass, String propertyName) throws IOException {
+			if (!(beanOrClass instanceof JiraBaseObject object)) {
+				return false;
+			}
+			if (!isLean(object) || keptIssueProperties.contains(propertyName)) {
+				object.properties().put(propertyName, ctxt.readValue(p, Object.class));
+			} else {
+				p.skipChildren();
+			}
+			return true;
+		}
+	}
+
+	private abstract static class WithoutAnySetter {
+		@JsonAnySetter(enabled = false)
+		private Map<String, Object> properties;
+	}
+}
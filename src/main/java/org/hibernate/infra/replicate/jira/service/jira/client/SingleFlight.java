@@ -0,0 +1,85 @@
+package org.hibernate.infra.replicate.jira.service.jira.client;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Lets the concurrent identical read requests share a single call to the Jira
+ * REST API: the first caller makes the call, and the ones that ask for the same
+ * resource while the call is in flight get its result instead of making a call
+ * of their own. Results are not kept once the call completes.
+ * <p>
+ * Only successful results are shared. If the call fails, the callers that were
+ * waiting for it make their own calls, so that each of them gets the failure
+ * handling (retries, deferred retries, etc.) that applies to it.
+ * <p>
+ * Note that the callers get the same instance of the result, which they should
+ * not modify.
+ */
+final class SingleFlight {
+
+	private final Map<Call, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	@SuppressWarnings("unchecked")
+	<T> T execute(Supplier<T> supplier, String method, Object... arguments) {
+		Call call = new Call(method, Arrays.asList(arguments));
+		CompletableFuture<Object> own = new CompletableFuture<>();
+		CompletableFuture<Object> current = inFlight.putIfAbsent(call, own);
+		if (current != null) {
+			try {
+				return (T) current.join();
+			} catch (CompletionException | CancellationException e) {
+				return supplier.get();
+			}
+		}
+		try {
+			T result = supplier.get();
+			own.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			own.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(call, own);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	<T> Uni<T> executeAsync(Supplier<Uni<T>> supplier, String method, Object... arguments) {
+		Call call = new Call(method, Arrays.asList(arguments));
+		return Uni.createFrom().deferred(() -> {
+			CompletableFuture<Object> own = new CompletableFuture<>();
+			CompletableFuture<Object> current = inFlight.putIfAbsent(call, own);
+			if (current != null) {
+				return Uni.createFrom().completionStage(current).map(result -> (T) result).onFailure()
+						.recoverWithUni(supplier::get);
+			}
+			return supplier.get().onItemOrFailure().invoke((result, failure) -> {
+				inFlight.remove(call, own);
+				if (failure == null) {
+					own.complete(result);
+				} else {
+					own.completeExceptionally(failure);
+				}
+			}).onCancellation().invoke(() -> {
+				inFlight.remove(call, own);
+				own.cancel(false);
+			});
+		});
+	}
+
+	int inFlight() {
+		return inFlight.size();
+	}
+
+	private record Call(String method, List<Object> arguments) {
+	}
+}
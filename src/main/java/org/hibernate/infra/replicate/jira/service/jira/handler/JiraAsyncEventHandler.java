@@ -0,0 +1,38 @@
+package org.hibernate.infra.replicate.jira.service.jira.handler;
+
+import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
+import org.hibernate.infra.replicate.jira.service.jira.client.DeferredRetries;
+import org.hibernate.infra.replicate.jira.service.jira.client.DeferredRetryException;
+import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * A handler that processes the event as a pipeline of non-blocking calls made
+ * through the {@link HandlerProjectGroupContext#sourceJiraAsyncClient()
+ * asynchronous clients}. The calls that do not depend on each other can be sent
+ * at the same time, and no thread is held while waiting for the Jira responses.
+ * <p>
+ * The event is still considered processed only once the entire pipeline has
+ * completed, so that the events of the same issue are not processed
+ * concurrently: the thread processing the event waits for the pipeline to
+ * complete. The failed REST calls are therefore not retried by the client in
+ * the meantime, but, as for the other handlers, fail the event with a
+ * {@link DeferredRetryException}, so that the entire event is retried later
+ * without holding the thread.
+ */
+public abstract class JiraAsyncEventHandler extends JiraEventHandler {
+
+	protected JiraAsyncEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context, Long id) {
+		super(reportingConfig, context, id);
+	}
+
+	@Override
+	protected final void doRun() {
+		// the pipeline calls are made by other threads, so they get the retry behaviour
+		// of this one through the context:
+		doRunAsync().awaitUsing(DeferredRetries.context()).indefinitely();
+	}
+
+	protected abstract Uni<Void> doRunAsync();
+}
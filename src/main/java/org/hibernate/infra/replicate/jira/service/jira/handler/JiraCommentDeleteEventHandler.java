@@ -1,14 +1,13 @@
 package org.hibernate.infra.replicate.jira.service.jira.handler;
 
-import java.util.Optional;
-
+import org.hibernate.infra.replicate.jira.service.jira.CommentIndex;
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
-import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestException;
-import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComment;
-import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComments;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestAsyncClient;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
 import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
 
+import io.smallrye.mutiny.Uni;
+
 public class JiraCommentDeleteEventHandler extends JiraCommentEventHandler {
 	public JiraCommentDeleteEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context,
 			Long commentId, Long issueId) {
@@ -16,26 +15,31 @@ public class JiraCommentDeleteEventHandler extends JiraCommentEventHandler {
 	}
 
 	@Override
-	protected void doRun() {
-		JiraIssue issue = context.sourceJiraClient().getIssue(issueId);
-		String destinationKey = context.contextForOriginalProjectKey(toProjectFromKey(issue.key))
-				.toDestinationKey(issue.key);
-		try {
-			JiraComment comment = context.sourceJiraClient().getComment(issueId, objectId);
-		} catch (JiraRestException e) {
-			if (e.statusCode() == 404) {
-				// all good comment is deleted
-				JiraComments comments = context.destinationJiraClient().getComments(destinationKey, 0,
-						MAX_COMMENTS_RESULTS);
-
-				Optional<JiraComment> found = findComment(Long.toString(objectId), comments);
-
-				found.ifPresent(
-						jiraComment -> context.destinationJiraClient().deleteComment(destinationKey, jiraComment.id));
-			} else {
-				throw e;
-			}
-		}
+	protected Uni<Void> doRunAsync() {
+		JiraRestAsyncClient source = context.sourceJiraAsyncClient();
+		Uni<Boolean> commentDeleted = source.getComment(issueId, objectId).replaceWith(Boolean.FALSE)
+				.onFailure(JiraCommentEventHandler::isNotFound)
+				.recoverWithItem(Boolean.TRUE);
+		return Uni.combine().all().unis(context.sourceIssueAsync(issueId, ISSUE_FIELDS), commentDeleted).asTuple()
+				.chain(issueAndDeleted -> {
+					if (!issueAndDeleted.getItem2()) {
+						return Uni.createFrom().voidItem();
+					}
+					// all good comment is deleted
+					JiraIssue issue = issueAndDeleted.getItem1();
+					String destinationKey = context.contextForOriginalProjectKey(toProjectFromKey(issue.key))
+							.toDestinationKey(issue.key);
+					JiraRestAsyncClient destination = context.destinationJiraAsyncClient();
+					CommentIndex index = context.destinationCommentIndex();
+					String sourceCommentId = Long.toString(objectId);
+					return findDestinationComment(destinationKey, sourceCommentId)
+							.chain(destComment -> destComment
+									.map(commentId -> destination.deleteComment(destinationKey, commentId)
+											// already removed by someone else, which is just as good:
+											.onFailure(JiraCommentEventHandler::isNotFound).recoverWithNull()
+											.invoke(() -> index.removed(destinationKey, sourceCommentId)))
+									.orElseGet(() -> Uni.createFrom().voidItem()));
+				});
 	}
 
 	@Override
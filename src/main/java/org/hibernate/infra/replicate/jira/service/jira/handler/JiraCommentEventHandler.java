@@ -1,17 +1,33 @@
 package org.hibernate.infra.replicate.jira.service.jira.handler;
 
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.hibernate.infra.replicate.jira.service.jira.CommentIndex;
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestException;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComment;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComments;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
 import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
 
-abstract class JiraCommentEventHandler extends JiraEventHandler {
+import io.smallrye.mutiny.Uni;
+
+abstract class JiraCommentEventHandler extends JiraAsyncEventHandler {
 	// this is the API default value so let's start with it and may change later if
 	// needed:
 	protected static final int MAX_COMMENTS_RESULTS = 5000;
+	// only the issue key and self link are needed to sync the comments, and these
+	// are always returned:
+	protected static final List<String> ISSUE_FIELDS = List.of("key");
+	// the quote we start the synced comments with, see JiraCommentUpsertEventHandler:
+	private static final Pattern COMMENT_QUOTE = Pattern
+			.compile("(?s)^\\{quote\\}This \\[comment.+?\\?focusedCommentId=(\\d+)\\].*");
 
 	protected final Long issueId;
 
@@ -21,24 +37,77 @@ abstract class JiraCommentEventHandler extends JiraEventHandler {
 		this.issueId = issueId;
 	}
 
-	protected Optional<JiraComment> findComment(JiraComment comment, JiraComments comments) {
-		return findComment(comment.id, comments);
+	@Override
+	public Object orderingKey() {
+		// comments should be processed in order with the other events of the issue:
+		return issueId;
+	}
+
+	protected JiraComment prepareComment(JiraIssue issue, JiraComment source) {
+		JiraComment comment = new JiraComment();
+		// we add the quote as a first element, and then follow it up with the original
+		// comment content:
+		comment.body = prepareCommentQuote(issue, source) + JiraComment.removeAtMentions(source.self, source.body);
+
+		return comment;
+	}
+
+	private String prepareCommentQuote(JiraIssue issue, JiraComment comment) {
+		URI jiraCommentUri = createJiraCommentUri(issue, comment);
+		UserData userData = userData(comment.self, comment.author, "the user %s");
+		UserData editUserData = userData(comment.self, comment.updateAuthor, "the user %s");
+		String content = """
+				{quote}This [comment|%s] was posted by [%s|%s] on %s.%s{quote}
+
+
+				""".formatted(jiraCommentUri, userData.name(), userData.uri(), context.formatTimestamp(comment.created),
+				comment.isUpdatedSameAsCreated()
+						? ""
+						: """
+
+								[%s|%s] edited the comment on %s.
+								""".formatted(editUserData.name(), editUserData.uri(),
+								context.formatTimestamp(comment.updated)));
+		return truncateContent(content);
+	}
+
+	/**
+	 * @return the id of the destination comment the source comment was synced to,
+	 *         if it was synced already.
+	 */
+	protected Uni<Optional<String>> findDestinationComment(String destinationKey, String sourceCommentId) {
+		CommentIndex index = context.destinationCommentIndex();
+		return index.comments(destinationKey).map(comments -> Uni.createFrom().item(comments))
+				// the first comment event of the issue, so let's find the comments we have
+				// synced so far:
+				.orElseGet(() -> context.destinationJiraAsyncClient()
+						.getComments(destinationKey, 0, MAX_COMMENTS_RESULTS)
+						.map(comments -> index.index(destinationKey, syncedComments(comments))))
+				.map(comments -> Optional.ofNullable(comments.get(sourceCommentId)));
+	}
+
+	protected static boolean isNotFound(Throwable e) {
+		return e instanceof JiraRestException exception && exception.statusCode() == 404;
 	}
 
-	protected Optional<JiraComment> findComment(String commentId, JiraComments comments) {
-		if (comments.comments == null || comments.comments.isEmpty()) {
-			return Optional.empty();
+	/**
+	 * @return the ids of the destination comments by the id of the source comment
+	 *         they were synced from.
+	 */
+	static Map<String, String> syncedComments(JiraComments comments) {
+		Map<String, String> synced = new HashMap<>();
+		if (comments.comments == null) {
+			return synced;
 		}
-		for (JiraComment check : comments.comments) {
-			if (hasRequiredCommentQuote(check.body, commentId)) {
-				return Optional.of(check);
+		for (JiraComment comment : comments.comments) {
+			if (comment.body == null) {
+				continue;
+			}
+			Matcher matcher = COMMENT_QUOTE.matcher(comment.body);
+			if (matcher.matches()) {
+				synced.putIfAbsent(matcher.group(1), comment.id);
 			}
 		}
-		return Optional.empty();
-	}
-
-	private boolean hasRequiredCommentQuote(String body, String commentId) {
-		return Pattern.compile("(?s)^\\{quote\\}This \\[comment.+\\?focusedCommentId=%s\\].*".formatted(commentId))
-				.matcher(body).matches();
+		return synced;
 	}
 }
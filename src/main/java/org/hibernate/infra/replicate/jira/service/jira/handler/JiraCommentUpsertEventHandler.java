@@ -1,15 +1,15 @@
 package org.hibernate.infra.replicate.jira.service.jira.handler;
 
-import java.net.URI;
-import java.util.Optional;
-
+import org.hibernate.infra.replicate.jira.service.jira.CommentIndex;
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestAsyncClient;
 import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestException;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComment;
-import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComments;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
 import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
 
+import io.smallrye.mutiny.Uni;
+
 public class JiraCommentUpsertEventHandler extends JiraCommentEventHandler {
 
 	public JiraCommentUpsertEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context,
@@ -18,60 +18,48 @@ public class JiraCommentUpsertEventHandler extends JiraCommentEventHandler {
 	}
 
 	@Override
-	protected void doRun() {
-		JiraIssue issue = context.sourceJiraClient().getIssue(issueId);
-		JiraComment comment = context.sourceJiraClient().getComment(issueId, objectId);
+	protected Uni<Void> doRunAsync() {
+		JiraRestAsyncClient source = context.sourceJiraAsyncClient();
+		// the issue and the comment do not depend on each other, so we fetch them at
+		// the same time:
+		return Uni.combine().all()
+				.unis(context.sourceIssueAsync(issueId, ISSUE_FIELDS), source.getComment(issueId, objectId)).asTuple()
+				.chain(issueAndComment -> upsertComment(issueAndComment.getItem1(), issueAndComment.getItem2()));
+	}
 
+	private Uni<Void> upsertComment(JiraIssue issue, JiraComment comment) {
 		String destinationKey = context.contextForOriginalProjectKey(toProjectFromKey(issue.key))
 				.toDestinationKey(issue.key);
+		JiraRestAsyncClient destination = context.destinationJiraAsyncClient();
+
+		CommentIndex index = context.destinationCommentIndex();
 
 		// We are going to assume that the Jira issue was already synced downstream,
 		// and try to find its comments. If the issue is not yet there, then we'll just
 		// fail here:
-		JiraComments destinationComments = null;
-		try {
-			destinationComments = context.destinationJiraClient().getComments(destinationKey, 0, MAX_COMMENTS_RESULTS);
-		} catch (JiraRestException e) {
-			failureCollector.critical("Failed to find an issue " + destinationKey
-					+ " in the destination Jira. Unable to sync the comments.", e);
-			return;
-		}
-
-		Optional<JiraComment> destComment = findComment(comment, destinationComments);
-		if (destComment.isPresent()) {
-			String commentId = destComment.get().id;
-			context.destinationJiraClient().update(destinationKey, commentId, prepareComment(issue, comment));
-		} else {
-			context.destinationJiraClient().create(destinationKey, prepareComment(issue, comment));
-		}
-	}
-
-	private JiraComment prepareComment(JiraIssue issue, JiraComment source) {
-		JiraComment comment = new JiraComment();
-		// we add the quote as a first element, and then follow it up with the original
-		// comment content:
-		comment.body = prepareCommentQuote(issue, source) + JiraComment.removeAtMentions(source.self, source.body);
-
-		return comment;
-	}
-
-	private String prepareCommentQuote(JiraIssue issue, JiraComment comment) {
-		URI jiraCommentUri = createJiraCommentUri(issue, comment);
-		UserData userData = userData(comment.self, comment.author, "the user %s");
-		UserData editUserData = userData(comment.self, comment.updateAuthor, "the user %s");
-		String content = """
-				{quote}This [comment|%s] was posted by [%s|%s] on %s.%s{quote}
-
-
-				""".formatted(jiraCommentUri, userData.name(), userData.uri(), context.formatTimestamp(comment.created),
-				comment.isUpdatedSameAsCreated()
-						? ""
-						: """
-
-								[%s|%s] edited the comment on %s.
-								""".formatted(editUserData.name(), editUserData.uri(),
-								context.formatTimestamp(comment.updated)));
-		return truncateContent(content);
+		return findDestinationComment(destinationKey, comment.id).onFailure(JiraRestException.class)
+				.invoke(e -> failureCollector.critical("Failed to find an issue " + destinationKey
+						+ " in the destination Jira. Unable to sync the comments.", (JiraRestException) e))
+				.onFailure(JiraRestException.class).recoverWithNull().chain(destComment -> {
+					if (destComment == null) {
+						return Uni.createFrom().voidItem();
+					}
+					if (destComment.isPresent()) {
+						return destination.update(destinationKey, destComment.get(), prepareComment(issue, comment))
+								// someone has removed the comment in the meantime, the index is outdated and
+								// will be rebuilt when the event is retried:
+								.onFailure(JiraCommentEventHandler::isNotFound)
+								.invoke(() -> index.forget(destinationKey)).replaceWithVoid();
+					} else {
+						return destination.create(destinationKey, prepareComment(issue, comment)).invoke(created -> {
+							if (created == null || created.id == null) {
+								index.forget(destinationKey);
+							} else {
+								index.added(destinationKey, comment.id, created.id.toString());
+							}
+						}).replaceWithVoid();
+					}
+				});
 	}
 
 	@Override
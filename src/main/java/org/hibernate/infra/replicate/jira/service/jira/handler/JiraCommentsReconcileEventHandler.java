@@ -0,0 +1,144 @@
+package org.hibernate.infra.replicate.jira.service.jira.handler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.hibernate.infra.replicate.jira.service.jira.CommentIndex;
+import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
+import org.hibernate.infra.replicate.jira.service.jira.client.DeferredRetryException;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestAsyncClient;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestException;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComment;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComments;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
+import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
+
+import io.smallrye.mutiny.CompositeException;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Syncs all the comments of an issue at once: the source and the destination
+ * comments are fetched once, and only the comments that are missing, different
+ * or no longer present in the source issue are created, updated or deleted.
+ * <p>
+ * Used when (re-)syncing entire issues, instead of handling each comment of the
+ * issue as a separate comment event.
+ */
+public class JiraCommentsReconcileEventHandler extends JiraCommentEventHandler {
+
+	public JiraCommentsReconcileEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context,
+			Long issueId) {
+		super(reportingConfig, context, issueId, issueId);
+	}
+
+	@Override
+	protected Uni<Void> doRunAsync() {
+		return context.sourceIssueAsync(issueId, ISSUE_FIELDS).chain(this::reconcile);
+	}
+
+	private Uni<Void> reconcile(JiraIssue issue) {
+		String destinationKey = context.contextForOriginalProjectKey(toProjectFromKey(issue.key))
+				.toDestinationKey(issue.key);
+		Uni<JiraComments> destinationComments = context.destinationJiraAsyncClient()
+				.getComments(destinationKey, 0, MAX_COMMENTS_RESULTS).onFailure(JiraRestException.class)
+				.invoke(e -> failureCollector.critical("Failed to find an issue " + destinationKey
+						+ " in the destination Jira. Unable to sync the comments.", (JiraRestException) e))
+				.onFailure(JiraRestException.class).recoverWithNull();
+		// the two lists do not depend on each other, so we fetch them at the same time:
+		return Uni.combine().all()
+				.unis(context.sourceJiraAsyncClient().getComments(issue.key, 0, MAX_COMMENTS_RESULTS),
+						destinationComments)
+				.asTuple().chain(comments -> comments.getItem2() == null
+						? Uni.createFrom().voidItem()
+						: apply(issue, destinationKey, comments.getItem1(), comments.getItem2()));
+	}
+
+	private Uni<Void> apply(JiraIssue issue, String destinationKey, JiraComments sourceComments,
+			JiraComments destinationComments) {
+		CommentIndex index = context.destinationCommentIndex();
+		Map<String, String> synced = index.index(destinationKey, syncedComments(destinationComments));
+		Map<String, String> destinationBodies = new HashMap<>();
+		if (destinationComments.comments != null) {
+			for (JiraComment comment : destinationComments.comments) {
+				destinationBodies.put(comment.id, comment.body);
+			}
+		}
+		JiraRestAsyncClient destination = context.destinationJiraAsyncClient();
+
+		List<Uni<Void>> changes = new ArrayList<>();
+		List<JiraComment> toCreate = new ArrayList<>();
+		Set<String> sourceIds = new HashSet<>();
+		List<JiraComment> source = sourceComments.comments == null ? List.of() : sourceComments.comments;
+		for (JiraComment comment : source) {
+			sourceIds.add(comment.id);
+			String destinationId = synced.get(comment.id);
+			if (destinationId == null) {
+				toCreate.add(comment);
+				continue;
+			}
+			JiraComment prepared = prepareComment(issue, comment);
+			if (!Objects.equals(prepared.body, destinationBodies.get(destinationId))) {
+				changes.add(destination.update(destinationKey, destinationId, prepared).replaceWithVoid());
+			}
+		}
+		// if we did not get all the source comments, we cannot tell which ones were
+		// removed:
+		if (source.size() >= sourceComments.total) {
+			for (Map.Entry<String, String> entry : synced.entrySet()) {
+				if (!sourceIds.contains(entry.getKey())) {
+					changes.add(destination.deleteComment(destinationKey, entry.getValue())
+							.onFailure(JiraCommentEventHandler::isNotFound).recoverWithNull()
+							.invoke(() -> index.removed(destinationKey, entry.getKey())));
+				}
+			}
+		}
+		if (!toCreate.isEmpty()) {
+			changes.add(create(issue, destinationKey, toCreate));
+		}
+		if (changes.isEmpty()) {
+			return Uni.createFrom().voidItem();
+		}
+		return Uni.join().all(changes).andCollectFailures().replaceWithVoid()
+				// the entire event is retried if any of the changes needs it:
+				.onFailure(CompositeException.class).transform(JiraCommentsReconcileEventHandler::deferredRetry);
+	}
+
+	private static Throwable deferredRetry(Throwable failure) {
+		for (Throwable cause : ((CompositeException) failure).getCauses()) {
+			if (cause instanceof DeferredRetryException retry) {
+				return retry;
+			}
+		}
+		return failure;
+	}
+
+	private Uni<Void> create(JiraIssue issue, String destinationKey, List<JiraComment> comments) {
+		CommentIndex index = context.destinationCommentIndex();
+		JiraRestAsyncClient destination = context.destinationJiraAsyncClient();
+		// the comments are created one after the other, so that they end up in the
+		// same order as in the source issue:
+		Uni<Void> created = Uni.createFrom().voidItem();
+		for (JiraComment comment : comments) {
+			created = created.chain(() -> destination.create(destinationKey, prepareComment(issue, comment))
+					.invoke(response -> {
+						if (response == null || response.id == null) {
+							index.forget(destinationKey);
+						} else {
+							index.added(destinationKey, comment.id, response.id.toString());
+						}
+					}).replaceWithVoid());
+		}
+		return created;
+	}
+
+	@Override
+	public String toString() {
+		return "JiraCommentsReconcileEventHandler[" + "issueId=" + issueId + ", projectGroup="
+				+ context.projectGroupName() + ']';
+	}
+}
@@ -2,13 +2,26 @@ package org.hibernate.infra.replicate.jira.service.jira.handler;
 
 import java.net.URI;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Supplier;
 
 import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.service.jira.DeadLetterQueue;
+import org.hibernate.infra.replicate.jira.service.jira.EventPriority;
+import org.hibernate.infra.replicate.jira.service.jira.EventRetries;
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
+import org.hibernate.infra.replicate.jira.service.jira.client.DeferredRetries;
+import org.hibernate.infra.replicate.jira.service.jira.client.DeferredRetryException;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComment;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraSimpleObject;
@@ -16,6 +29,7 @@ import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraTextConten
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraUser;
 import org.hibernate.infra.replicate.jira.service.reporting.FailureCollector;
 import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
+import org.hibernate.infra.replicate.jira.service.reporting.TrackingFailureCollector;
 
 import io.quarkus.logging.Log;
 import jakarta.ws.rs.core.UriBuilder;
@@ -24,11 +38,18 @@ public abstract class JiraEventHandler implements Runnable {
 	protected static final int MAX_CONTENT_SIZE = 32_766;
 
 	protected final Long objectId;
-	protected final FailureCollector failureCollector;
 	protected final HandlerProjectGroupContext context;
+	protected FailureCollector failureCollector;
+	private final ReportingConfig reportingConfig;
+	private final List<Runnable> completionListeners = new CopyOnWriteArrayList<>();
+	private final DeadLetterQueue.Redelivery redelivery = new DeadLetterQueue.Redelivery(this::redeliver,
+			this::notifyCompleted);
+	private volatile int failedAttempts;
+	private volatile EventPriority priority = EventPriority.INTERACTIVE;
 
 	protected JiraEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context, Long id) {
 		this.objectId = id;
+		this.reportingConfig = reportingConfig;
 		this.failureCollector = FailureCollector.collector(reportingConfig);
 		this.context = context;
 	}
@@ -168,23 +189,208 @@ public abstract class JiraEventHandler implements Runnable {
 
 	@Override
 	public final void run() {
+		boolean retryScheduled = false;
+		// the event may be processed more than once (retries/redeliveries), and the
+		// collector of the previous attempt is already closed:
+		TrackingFailureCollector collector = new TrackingFailureCollector(FailureCollector.collector(reportingConfig));
+		failureCollector = collector;
 		try {
 			context.startProcessingEvent();
-			doRun();
+			DeferredRetries.run(failedAttempts + 1 < EventRetries.MAX_ATTEMPTS, this::doRun);
+		} catch (DeferredRetryException e) {
+			retryScheduled = scheduleRetry(e);
 		} catch (RuntimeException e) {
 			failureCollector.critical("Failed to handle the event: %s".formatted(this), e);
 		} catch (InterruptedException e) {
 			failureCollector.critical("Interrupted while waiting in the queue", e);
 			Thread.currentThread().interrupt();
 		} finally {
+			if (!retryScheduled) {
+				Optional<String> failure = collector.criticalFailure();
+				if (failure.isPresent()) {
+					// the event is completed only once it is removed from the dead-letter queue:
+					context.deadLetters().add(failedEvent(), failure.get(),
+							collector.criticalException().map(DeadLetterQueue::isTransient).orElse(false), redelivery);
+				} else {
+					context.deadLetters().delivered(failedEvent(), redelivery);
+					notifySucceeded();
+					notifyCompleted();
+				}
+			}
 			failureCollector.close();
 			Log.infof("Finished processing %s. Pending events in %s to process: %s", this.toString(),
 					context.projectGroupName(), context.pendingEventsInCurrentContext());
 		}
 	}
 
+	private void redeliver() {
+		failedAttempts = 0;
+		context.submitTask(this, priority);
+	}
+
+	private boolean scheduleRetry(DeferredRetryException e) {
+		failedAttempts++;
+		try {
+			context.retries().schedule(this, failedAttempts, e, () -> context.retryTask(this));
+			return true;
+		} catch (RejectedExecutionException rejected) {
+			failureCollector.critical("Failed to handle the event: %s".formatted(this), e.getCause());
+			return false;
+		}
+	}
+
+	public EventPriority priority() {
+		return priority;
+	}
+
+	/**
+	 * Set by the context when the event is queued, so that the retries are queued
+	 * with the same priority.
+	 */
+	public void priority(EventPriority priority) {
+		this.priority = priority;
+	}
+
+	/**
+	 * @return how many times the processing of this event has failed so far, and
+	 *         was rescheduled.
+	 */
+	public int failedAttempts() {
+		return failedAttempts;
+	}
+
 	protected abstract void doRun();
 
+	/**
+	 * Called once the event was processed without any critical failure, before
+	 * the completion listeners are notified.
+	 */
+	protected void succeeded() {
+	}
+
+	/**
+	 * Runs the steps of the event that do not depend on each other, e.g. writes to
+	 * different resources of the destination issue, at the same time, and waits for
+	 * all of them to finish.
+	 * <p>
+	 * A failure of one step does not stop the others, all the failures are
+	 * reported to the {@link #failureCollector failure collector}. If a step needs
+	 * the entire event to be retried later, the other steps are cancelled, as they
+	 * will be executed again with the retry anyway.
+	 *
+	 * @param steps
+	 *            The steps to execute, keyed by their description used when
+	 *            reporting the failures.
+	 */
+	protected void runConcurrently(Map<String, Runnable> steps) {
+		try (ExecutorService executor = Executors
+				.newThreadPerTaskExecutor(Thread.ofVirtual().name("jira-event-step-", 0).factory())) {
+			Map<String, Future<?>> futures = new LinkedHashMap<>();
+			for (var step : steps.entrySet()) {
+				futures.put(step.getKey(), executor.submit(DeferredRetries.propagate(step.getValue())));
+			}
+			DeferredRetryException deferred = null;
+			for (var future : futures.entrySet()) {
+				try {
+					future.getValue().get();
+				} catch (CancellationException e) {
+					// cancelled because the event will be retried
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof DeferredRetryException retry) {
+						if (deferred == null) {
+							deferred = retry;
+							futures.values().forEach(f -> f.cancel(true));
+						}
+					} else if (e.getCause() instanceof RuntimeException cause) {
+						failureCollector.critical(
+								"Failed to %s for %s: %s".formatted(future.getKey(), this, cause.getMessage()), cause);
+					} else {
+						throw new IllegalStateException(e.getCause());
+					}
+				} catch (InterruptedException e) {
+					futures.values().forEach(f -> f.cancel(true));
+					Thread.currentThread().interrupt();
+					failureCollector.critical("Interrupted while waiting to %s for %s".formatted(future.getKey(), this),
+							e);
+					return;
+				}
+			}
+			if (deferred != null) {
+				throw deferred;
+			}
+		}
+	}
+
+	/**
+	 * Registers a listener to be notified once this handler has finished processing
+	 * the event, whether it succeeded or not.
+	 */
+	public void whenCompleted(Runnable listener) {
+		completionListeners.add(listener);
+	}
+
+	/**
+	 * Takes over the completion listeners of a handler that was coalesced into this
+	 * one, and hence will never be executed itself.
+	 */
+	public void takeOverCompletionListeners(JiraEventHandler coalesced) {
+		completionListeners.addAll(coalesced.completionListeners);
+		coalesced.completionListeners.clear();
+	}
+
+	private void notifySucceeded() {
+		try {
+			succeeded();
+		} catch (RuntimeException e) {
+			Log.errorf(e, "Failed to record the success of %s: %s", this, e.getMessage());
+		}
+	}
+
+	private void notifyCompleted() {
+		for (Runnable listener : completionListeners) {
+			try {
+				listener.run();
+			} catch (RuntimeException e) {
+				Log.errorf(e, "Failed to notify about the completion of %s: %s", this, e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * @return what the dead-letter queue keeps about this event, if it fails.
+	 */
+	public DeadLetterQueue.FailedEvent failedEvent() {
+		CoalescingKey key = coalescingKey();
+		return new DeadLetterQueue.FailedEvent(key.kind(), key.id(), context.projectGroupName());
+	}
+
+	/**
+	 * @return how the dead-letter queue processes this event again, the same
+	 *         instance for all the failures of the event.
+	 */
+	public DeadLetterQueue.Redelivery redelivery() {
+		return redelivery;
+	}
+
+	/**
+	 * @return the key identifying the event this handler processes. If another
+	 *         handler with the same key is still waiting in the queue, there is no
+	 *         point in processing both of them, since handlers always fetch the
+	 *         latest state of the object through the REST API.
+	 */
+	public CoalescingKey coalescingKey() {
+		return new CoalescingKey(getClass().getSimpleName(), objectId);
+	}
+
+	/**
+	 * @return the key that determines which events must not be processed
+	 *         concurrently, e.g. events for the same issue. Events with the same
+	 *         key are processed in the order they were received.
+	 */
+	public Object orderingKey() {
+		return objectId;
+	}
+
 	protected String truncateContent(String content) {
 		// NOTE: description/comment content has a limit, and maybe the original one is
 		// close to that limit but since we modify it with the quote info we better make
@@ -209,4 +415,7 @@ public abstract class JiraEventHandler implements Runnable {
 
 	protected record UserData(String name, URI uri) {
 	}
+
+	public record CoalescingKey(String kind, Object id) {
+	}
 }
@@ -2,6 +2,7 @@ package org.hibernate.infra.replicate.jira.service.jira.handler;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
@@ -12,6 +13,7 @@ import java.util.regex.Pattern;
 import org.hibernate.infra.replicate.jira.JiraConfig;
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectContext;
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
+import org.hibernate.infra.replicate.jira.service.jira.IssueFingerprints;
 import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestException;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraFields;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
@@ -24,16 +26,28 @@ import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraUser;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraVersion;
 import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
 
+import io.quarkus.logging.Log;
+
 abstract class JiraIssueAbstractEventHandler extends JiraEventHandler {
 
 	private static final Pattern FIX_VERSION_PATTERN = Pattern.compile("Fix_version:.++");
+	/**
+	 * The fields of the destination issue that the transition relies on.
+	 */
+	private static final List<String> TRANSITION_ISSUE_FIELDS = List.of("status");
+	/**
+	 * The fields of the destination issue that the body update is compared to, and
+	 * that the transition relies on. See also {@link #destinationIssueFields()}.
+	 */
+	private static final List<String> DESTINATION_ISSUE_FIELDS = List.of("summary", "description", "labels",
+			"priority", "issuetype", "project", "assignee", "reporter", "fixVersions", "versions", "status");
 
 	public JiraIssueAbstractEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context, Long id) {
 		super(reportingConfig, context, id);
 	}
 
 	protected void applyTransition(JiraIssue sourceIssue, String destinationKey) {
-		JiraIssue destIssue = context.destinationJiraClient().getIssue(destinationKey);
+		JiraIssue destIssue = context.destinationJiraClient().getIssue(destinationKey, TRANSITION_ISSUE_FIELDS);
 		applyTransition(sourceIssue, destIssue, destinationKey);
 	}
 
@@ -49,7 +63,7 @@ abstract class JiraIssueAbstractEventHandler extends JiraEventHandler {
 	}
 
 	protected void updateIssueBody(HandlerProjectContext projectContext, JiraIssue sourceIssue, String destinationKey) {
-		JiraIssue destIssue = context.destinationJiraClient().getIssue(destinationKey);
+		JiraIssue destIssue = context.destinationJiraClient().getIssue(destinationKey, destinationIssueFields());
 		updateIssueBody(projectContext, sourceIssue, destIssue, destinationKey);
 	}
 
@@ -57,7 +71,136 @@ abstract class JiraIssueAbstractEventHandler extends JiraEventHandler {
 			String destinationKey) {
 		JiraIssue issue = issueToCreate(projectContext, sourceIssue, destIssue);
 
-		updateIssue(destinationKey, issue, sourceIssue, context.notMappedAssignee());
+		IssueFingerprints fingerprints = context.destinationIssueFingerprints();
+		String fingerprint = IssueFingerprints.fingerprint(issue);
+		if (fingerprints.unchanged(destinationKey, fingerprint)) {
+			Log.debugf("Skipping the update of %s as nothing has changed since the last one", destinationKey);
+			return;
+		}
+		// until we know that the update went through:
+		fingerprints.forget(destinationKey);
+		Optional<JiraIssue> changes = changedFields(issue, destIssue);
+		if (changes.isPresent()) {
+			updateIssue(destinationKey, changes.get(), sourceIssue, context.notMappedAssignee());
+		} else {
+			Log.debugf("Skipping the update of %s as it already matches the source issue", destinationKey);
+		}
+		fingerprints.written(destinationKey, fingerprint);
+	}
+
+	/**
+	 * @return the fields of the destination issue that the
+	 *         {@link #updateIssueBody(HandlerProjectContext, JiraIssue, JiraIssue, String)
+	 *         body update} needs, i.e. the ones it is going to compare and the
+	 *         status for the transition.
+	 */
+	protected List<String> destinationIssueFields() {
+		JiraConfig.IssueTypeValueMapping issueTypes = context.projectGroup().issueTypes();
+		if (issueTypes.epicLinkKeyCustomFieldName().isEmpty()
+				&& issueTypes.epicLinkDestinationLabelCustomFieldName().isEmpty()) {
+			return DESTINATION_ISSUE_FIELDS;
+		}
+		List<String> fields = new ArrayList<>(DESTINATION_ISSUE_FIELDS);
+		issueTypes.epicLinkKeyCustomFieldName().ifPresent(fields::add);
+		issueTypes.epicLinkDestinationLabelCustomFieldName().ifPresent(fields::add);
+		return fields;
+	}
+
+	/**
+	 * @param issue
+	 *            The destination issue as rendered from the source one.
+	 * @param destIssue
+	 *            The destination issue as it currently is.
+	 * @return the update with only the fields that differ from the current
+	 *         destination issue, if any.
+	 */
+	protected Optional<JiraIssue> changedFields(JiraIssue issue, JiraIssue destIssue) {
+		JiraFields rendered = issue.fields;
+		JiraFields current = destIssue.fields;
+		JiraIssue changes = new JiraIssue();
+		changes.fields = JiraFields.empty();
+		boolean changed = false;
+
+		if (!Objects.equals(rendered.summary, current.summary)) {
+			changes.fields.summary = rendered.summary;
+			changed = true;
+		}
+		if (!Objects.equals(rendered.description, current.description)) {
+			changes.fields.description = rendered.description;
+			changed = true;
+		}
+		if (!Set.copyOf(rendered.labels).equals(current.labels == null ? Set.of() : Set.copyOf(current.labels))) {
+			changes.fields.labels = rendered.labels;
+			changed = true;
+		}
+		// the priority and issue type are not sent when they cannot be mapped, to let
+		// Jira use the defaults, so there's nothing to compare then:
+		if (rendered.priority != null && !sameId(rendered.priority, current.priority)) {
+			changes.fields.priority = rendered.priority;
+			changed = true;
+		}
+		if (rendered.issuetype != null && !sameId(rendered.issuetype, current.issuetype)) {
+			changes.fields.issuetype = rendered.issuetype;
+			changed = true;
+		}
+		if (rendered.project != null
+				&& (current.project == null || !Objects.equals(rendered.project.id, current.project.id))) {
+			changes.fields.project = rendered.project;
+			changed = true;
+		}
+		if (rendered.assignee != null && !sameUser(rendered.assignee, current.assignee)) {
+			changes.fields.assignee = rendered.assignee;
+			changed = true;
+		}
+		if (rendered.reporter != null && !sameUser(rendered.reporter, current.reporter)) {
+			changes.fields.reporter = rendered.reporter;
+			changed = true;
+		}
+		if (rendered.fixVersions != null && !sameVersions(rendered.fixVersions, current.fixVersions)) {
+			changes.fields.fixVersions = rendered.fixVersions;
+			changed = true;
+		}
+		if (rendered.versions != null && !sameVersions(rendered.versions, current.versions)) {
+			changes.fields.versions = rendered.versions;
+			changed = true;
+		}
+		// epic custom fields:
+		for (var property : rendered.properties().entrySet()) {
+			if (!Objects.equals(property.getValue(), current.properties().get(property.getKey()))) {
+				changes.fields.properties().put(property.getKey(), property.getValue());
+				changed = true;
+			}
+		}
+
+		return changed ? Optional.of(changes) : Optional.empty();
+	}
+
+	private static boolean sameId(JiraSimpleObject rendered, JiraSimpleObject current) {
+		return current != null && Objects.equals(rendered.id, current.id);
+	}
+
+	private boolean sameUser(JiraUser rendered, JiraUser current) {
+		String propertyName = context.projectGroup().users().mappedPropertyName();
+		String identifier = rendered.mappedIdentifier(propertyName);
+		if (current == null) {
+			// "unassigned" is rendered as a special user:
+			return Objects.equals(identifier, JiraUser.unassigned(propertyName).mappedIdentifier(propertyName));
+		}
+		return Objects.equals(identifier, current.mappedIdentifier(propertyName));
+	}
+
+	private static boolean sameVersions(List<JiraVersion> rendered, List<JiraVersion> current) {
+		Set<String> renderedIds = new HashSet<>();
+		for (JiraVersion version : rendered) {
+			renderedIds.add(version.id);
+		}
+		Set<String> currentIds = new HashSet<>();
+		if (current != null) {
+			for (JiraVersion version : current) {
+				currentIds.add(version.id);
+			}
+		}
+		return renderedIds.equals(currentIds);
 	}
 
 	protected void updateIssue(String destinationKey, JiraIssue issue, JiraIssue sourceIssue, JiraUser assignee) {
@@ -8,6 +8,7 @@ import java.util.Optional;
 import java.util.Set;
 
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
+import org.hibernate.infra.replicate.jira.service.jira.client.DeferredRetryException;
 import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestException;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraFields;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
@@ -15,6 +16,11 @@ import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraTransition
 import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
 
 public class JiraIssueDeleteEventHandler extends JiraIssueAbstractEventHandler {
+	// the key is always returned, and it is all we need to know that the issue still
+	// exists (or was moved):
+	private static final List<String> SOURCE_ISSUE_FIELDS = List.of("key");
+	private static final List<String> MARKED_ISSUE_FIELDS = List.of("summary", "labels", "status");
+
 	private final String key;
 
 	public JiraIssueDeleteEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context, Long id,
@@ -34,7 +40,7 @@ public class JiraIssueDeleteEventHandler extends JiraIssueAbstractEventHandler {
 			// that such key does not exist, searching by ID may also not find the issue,
 			// but then if the issue is not there we cannot check that the key matches the
 			// ID.
-			JiraIssue issue = context.sourceJiraClient().getIssue(key);
+			JiraIssue issue = context.sourceJiraClient().getIssue(key, SOURCE_ISSUE_FIELDS);
 			if (issue != null && !key.equals(issue.key)) {
 				// means the issue got moved:
 				handleDeletedMovedIssue("MOVED (to %s)".formatted(issue.key));
@@ -52,7 +58,7 @@ public class JiraIssueDeleteEventHandler extends JiraIssueAbstractEventHandler {
 	private void handleDeletedMovedIssue(String type) {
 		try {
 			String destinationKey = context.contextForOriginalProjectKey(toProjectFromKey(key)).toDestinationKey(key);
-			JiraIssue issue = context.destinationJiraClient().getIssue(destinationKey);
+			JiraIssue issue = context.destinationJiraClient().getIssue(destinationKey, MARKED_ISSUE_FIELDS);
 			JiraIssue updated = new JiraIssue();
 
 			updated.fields = new JiraFields();
@@ -67,12 +73,17 @@ public class JiraIssueDeleteEventHandler extends JiraIssueAbstractEventHandler {
 			updated.fields.issuetype = null;
 			updated.fields.project = null;
 
+			// the issue is no longer what the last sync has sent:
+			context.destinationIssueFingerprints().forget(destinationKey);
 			context.destinationJiraClient().update(destinationKey, updated);
 
 			prepareTransition(issue)
 					.ifPresent(transition -> context.destinationJiraClient().transition(destinationKey, transition));
 
 			context.destinationJiraClient().archive(destinationKey);
+		} catch (DeferredRetryException ex) {
+			// the entire event will be retried later:
+			throw ex;
 		} catch (Exception ex) {
 			failureCollector.critical("Unable to mark the issue %s as deleted: %s".formatted(objectId, ex.getMessage()),
 					ex);
@@ -95,6 +106,18 @@ public class JiraIssueDeleteEventHandler extends JiraIssueAbstractEventHandler {
 		return Optional.empty();
 	}
 
+	@Override
+	public Object orderingKey() {
+		return objectId != null && objectId > 0 ? objectId : key;
+	}
+
+	@Override
+	public CoalescingKey coalescingKey() {
+		// manually triggered deletes do not have the id of an issue (-1),
+		// so we use the key instead:
+		return new CoalescingKey(getClass().getSimpleName(), key);
+	}
+
 	@Override
 	public String toString() {
 		return "JiraIssueDeleteEventHandler[" + "key='" + key + '\'' + ", objectId=" + objectId + ", projectGroup="
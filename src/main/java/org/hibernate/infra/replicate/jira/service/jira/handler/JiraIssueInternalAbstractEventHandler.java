@@ -8,7 +8,7 @@ import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
 
 abstract class JiraIssueInternalAbstractEventHandler extends JiraIssueAbstractEventHandler {
 
-	private final JiraIssue sourceIssue;
+	private volatile JiraIssue sourceIssue;
 
 	protected JiraIssueInternalAbstractEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context,
 			JiraIssue issue) {
@@ -20,6 +20,19 @@ abstract class JiraIssueInternalAbstractEventHandler extends JiraIssueAbstractEv
 	protected final void doRun() {
 		// NOTE: we do not look up the source issue as we've already queried for it
 		// before creating this handler:
+		JiraIssue sourceIssue = this.sourceIssue;
+		if (sourceIssue == null) {
+			// processed again after a failure:
+			try {
+				sourceIssue = context.sourceIssue(objectId);
+			} catch (JiraRestException e) {
+				failureCollector.critical("Source issue %d was not found through the REST API".formatted(objectId), e);
+				return;
+			}
+		}
+		// if this attempt fails, the handler may be kept around for a while, e.g. in
+		// the dead-letter queue, and there is no need to keep the whole issue for that:
+		this.sourceIssue = null;
 		HandlerProjectContext projectContext = context.contextForOriginalProjectKey(sourceIssue.fields.project.key);
 		String destinationKey = projectContext.toDestinationKey(sourceIssue.key);
 		// We don't really need one, but doing so means that we will create the
@@ -1,5 +1,7 @@
 package org.hibernate.infra.replicate.jira.service.jira.handler;
 
+import java.util.List;
+
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
 import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestException;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
@@ -7,6 +9,8 @@ import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueLink;
 import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
 
 public class JiraIssueLinkDeleteEventHandler extends JiraEventHandler {
+	private static final List<String> ISSUE_FIELDS = List.of("issuelinks");
+
 	private final Long sourceIssueId;
 
 	private final Long destinationIssueId;
@@ -25,8 +29,8 @@ public class JiraIssueLinkDeleteEventHandler extends JiraEventHandler {
 		JiraIssue sourceIssue = null;
 		JiraIssue destinationIssue = null;
 		try {
-			sourceIssue = context.sourceJiraClient().getIssue(sourceIssueId);
-			destinationIssue = context.sourceJiraClient().getIssue(destinationIssueId);
+			sourceIssue = context.sourceJiraClient().getIssue(sourceIssueId, ISSUE_FIELDS);
+			destinationIssue = context.sourceJiraClient().getIssue(destinationIssueId, ISSUE_FIELDS);
 		} catch (JiraRestException e) {
 			failureCollector.critical("Source/destination issues %d/%d were not found through the REST API"
 					.formatted(sourceIssueId, destinationIssueId), e);
@@ -53,8 +57,8 @@ public class JiraIssueLinkDeleteEventHandler extends JiraEventHandler {
 				.toDestinationKey(destinationIssue.key);
 		// we will let it fail if one issue does not exist as that would mean that the
 		// link is also not there:
-		context.destinationJiraClient().getIssue(outwardIssue);
-		JiraIssue issue = context.destinationJiraClient().getIssue(inwardIssue);
+		context.destinationJiraClient().getIssue(outwardIssue, ISSUE_FIELDS);
+		JiraIssue issue = context.destinationJiraClient().getIssue(inwardIssue, ISSUE_FIELDS);
 
 		String linkType = linkType(issueLinkTypeId).orElseThrow();
 		if (issue.fields.issuelinks != null) {
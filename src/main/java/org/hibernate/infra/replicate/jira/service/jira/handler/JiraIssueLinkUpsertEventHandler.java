@@ -1,6 +1,7 @@
 package org.hibernate.infra.replicate.jira.service.jira.handler;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Optional;
 
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectContext;
@@ -15,6 +16,8 @@ import jakarta.ws.rs.core.UriBuilder;
 
 public class JiraIssueLinkUpsertEventHandler extends JiraEventHandler {
 
+	private static final List<String> ISSUE_FIELDS = List.of("issuelinks");
+
 	public JiraIssueLinkUpsertEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context,
 			Long id) {
 		super(reportingConfig, context, id);
@@ -49,7 +52,7 @@ public class JiraIssueLinkUpsertEventHandler extends JiraEventHandler {
 			String inwardIssue = inwardContext.toDestinationKey(sourceLink.inwardIssue.key);
 			inwardContext.createNextPlaceholderBatch(outwardIssue);
 			outwardContext.createNextPlaceholderBatch(inwardIssue);
-			JiraIssue issue = context.destinationJiraClient().getIssue(inwardIssue);
+			JiraIssue issue = context.destinationJiraClient().getIssue(inwardIssue, ISSUE_FIELDS);
 
 			if (issue.fields.issuelinks != null) {
 				// do we already have this issue link or not ?
@@ -22,13 +22,19 @@ public class JiraIssueSimpleUpsertEventHandler extends JiraIssueInternalAbstract
 
 	@Override
 	protected void updateAction(HandlerProjectContext projectContext, String destinationKey, JiraIssue sourceIssue) {
-		JiraIssue destIssue = context.destinationJiraClient().getIssue(destinationKey);
+		JiraIssue destIssue = context.destinationJiraClient().getIssue(destinationKey, destinationIssueFields());
 		updateIssueBody(projectContext, sourceIssue, destIssue, destinationKey);
 		if (applyTransitionUpdate) {
 			applyTransition(sourceIssue, destIssue, destinationKey);
 		}
 	}
 
+	@Override
+	public CoalescingKey coalescingKey() {
+		return new CoalescingKey(
+				"%s[applyTransitionUpdate=%s]".formatted(getClass().getSimpleName(), applyTransitionUpdate), objectId);
+	}
+
 	@Override
 	public String toString() {
 		return "JiraIssueSimpleUpsertEventHandler[" + "objectId=" + objectId + ", projectGroup="
@@ -1,5 +1,8 @@
 package org.hibernate.infra.replicate.jira.service.jira.handler;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectContext;
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
 import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestException;
@@ -8,15 +11,18 @@ import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
 
 public class JiraIssueUpsertEventHandler extends JiraIssueAbstractEventHandler {
 
+	private volatile JiraIssue syncedIssue;
+
 	public JiraIssueUpsertEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context, Long id) {
 		super(reportingConfig, context, id);
 	}
 
 	@Override
 	protected void doRun() {
+		syncedIssue = null;
 		JiraIssue sourceIssue = null;
 		try {
-			sourceIssue = context.sourceJiraClient().getIssue(objectId);
+			sourceIssue = context.sourceIssue(objectId);
 		} catch (JiraRestException e) {
 			failureCollector.critical("Source issue %d was not found through the REST API".formatted(objectId), e);
 			// no point in continuing anything
@@ -32,26 +38,42 @@ public class JiraIssueUpsertEventHandler extends JiraIssueAbstractEventHandler {
 		projectContext.createNextPlaceholderBatch(destinationKey);
 
 		try {
-			JiraIssue destIssue = context.destinationJiraClient().getIssue(destinationKey);
+			JiraIssue destIssue = context.destinationJiraClient().getIssue(destinationKey, destinationIssueFields());
 
 			updateIssueBody(projectContext, sourceIssue, destIssue, destinationKey);
+
+			// the rest of the updates touch different resources of the issue, so we can
+			// make them at the same time:
+			JiraIssue source = sourceIssue;
+			Map<String, Runnable> steps = new LinkedHashMap<>();
 			// remote "aka web" links cannot be added in the same request and are also not
 			// returned as part of the issue API.
 			// We "upsert" the remote link pointing to the "original/source" issue that
 			// triggered the sync with an additional call:
-			context.destinationJiraClient().upsertRemoteLink(destinationKey, remoteSelfLink(sourceIssue));
+			steps.put("upsert the remote link",
+					() -> context.destinationJiraClient().upsertRemoteLink(destinationKey, remoteSelfLink(source)));
 			// issue status can be updated only through transition:
-			applyTransition(sourceIssue, destIssue, destinationKey);
+			steps.put("apply the transition", () -> applyTransition(source, destIssue, destinationKey));
 			// and then we want to add a link to a parent, if the issue was actually a
 			// sub-task which we've created as a task:
-			prepareParentLink(projectContext, destinationKey, sourceIssue)
-					.ifPresent(context.destinationJiraClient()::upsertIssueLink);
+			steps.put("link the parent issue", () -> prepareParentLink(projectContext, destinationKey, source)
+					.ifPresent(context.destinationJiraClient()::upsertIssueLink));
+			runConcurrently(steps);
+			syncedIssue = sourceIssue;
 		} catch (JiraRestException e) {
 			failureCollector
 					.critical("Unable to update destination issue %s: %s".formatted(destinationKey, e.getMessage()), e);
 		}
 	}
 
+	@Override
+	protected void succeeded() {
+		JiraIssue issue = syncedIssue;
+		if (issue != null && issue.fields != null && issue.fields.updated != null) {
+			context.syncedIssueStamps().applied(issue.id, issue.fields.updated);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "JiraIssueUpsertEventHandler[" + "objectId=" + objectId + ", projectGroup=" + context.projectGroupName()
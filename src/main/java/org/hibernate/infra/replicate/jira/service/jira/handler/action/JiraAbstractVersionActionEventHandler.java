@@ -19,7 +19,7 @@ abstract class JiraAbstractVersionActionEventHandler extends JiraActionEventHand
 
 	@Override
 	protected void doRun() {
-		JiraIssue issue = context.destinationJiraClient().getIssue(event.key);
+		JiraIssue issue = context.destinationJiraClient().getIssue(event.key, List.of(versionField()));
 
 		JiraIssue updated = new JiraIssue();
 		updated.fields = JiraFields.empty();
@@ -47,6 +47,12 @@ abstract class JiraAbstractVersionActionEventHandler extends JiraActionEventHand
 
 	protected abstract List<JiraVersion> versionList(JiraIssue issue);
 
+	/**
+	 * @return the name of the issue field holding the {@link #versionList(JiraIssue)
+	 *         version list}.
+	 */
+	protected abstract String versionField();
+
 	@Override
 	public String toString() {
 		return this.getClass().getSimpleName() + "[" + "event=" + event + ", projectGroup=" + context.projectGroupName()
@@ -1,44 +1,108 @@
 package org.hibernate.infra.replicate.jira.service.jira.handler.action;
 
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.hibernate.infra.replicate.jira.service.jira.DeadLetterQueue;
+import org.hibernate.infra.replicate.jira.service.jira.EventRetries;
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
+import org.hibernate.infra.replicate.jira.service.jira.client.DeferredRetries;
+import org.hibernate.infra.replicate.jira.service.jira.client.DeferredRetryException;
 import org.hibernate.infra.replicate.jira.service.jira.model.action.JiraActionEvent;
 import org.hibernate.infra.replicate.jira.service.reporting.FailureCollector;
 import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
+import org.hibernate.infra.replicate.jira.service.reporting.TrackingFailureCollector;
 
 import io.quarkus.logging.Log;
 
 public abstract class JiraActionEventHandler implements Runnable {
 
 	protected final JiraActionEvent event;
-	protected final FailureCollector failureCollector;
 	protected final HandlerProjectGroupContext context;
+	protected FailureCollector failureCollector;
+	private final ReportingConfig reportingConfig;
+	private final DeadLetterQueue.Redelivery redelivery = new DeadLetterQueue.Redelivery(this::redeliver);
+	private volatile int failedAttempts;
 
 	protected JiraActionEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context,
 			JiraActionEvent event) {
 		this.event = event;
+		this.reportingConfig = reportingConfig;
 		this.failureCollector = FailureCollector.collector(reportingConfig);
 		this.context = context;
 	}
 
 	@Override
 	public final void run() {
+		boolean retryScheduled = false;
+		// the event may be processed more than once (retries/redeliveries), and the
+		// collector of the previous attempt is already closed:
+		TrackingFailureCollector collector = new TrackingFailureCollector(FailureCollector.collector(reportingConfig));
+		failureCollector = collector;
 		try {
 			context.startProcessingDownstreamEvent();
-			doRun();
+			DeferredRetries.run(failedAttempts + 1 < EventRetries.MAX_ATTEMPTS, this::doRun);
+		} catch (DeferredRetryException e) {
+			retryScheduled = scheduleRetry(e);
 		} catch (RuntimeException e) {
 			failureCollector.critical("Failed to handle the event: %s".formatted(this), e);
 		} catch (InterruptedException e) {
 			failureCollector.critical("Interrupted while waiting in the queue", e);
 			Thread.currentThread().interrupt();
 		} finally {
+			if (!retryScheduled) {
+				Optional<String> failure = collector.criticalFailure();
+				if (failure.isPresent()) {
+					context.deadLetters().add(failedEvent(), failure.get(),
+							collector.criticalException().map(DeadLetterQueue::isTransient).orElse(false), redelivery);
+				} else {
+					context.deadLetters().delivered(failedEvent(), redelivery);
+				}
+			}
 			failureCollector.close();
 			Log.infof("Finished processing %s. Pending events in %s to process: %s", this.toString(),
 					context.projectGroupName(), context.pendingDownstreamEventsInCurrentContext());
 		}
 	}
 
+	private boolean scheduleRetry(DeferredRetryException e) {
+		failedAttempts++;
+		try {
+			context.retries().schedule(this, failedAttempts, e, () -> context.retryDownstreamTask(this));
+			return true;
+		} catch (RejectedExecutionException rejected) {
+			failureCollector.critical("Failed to handle the event: %s".formatted(this), e.getCause());
+			return false;
+		}
+	}
+
+	private void redeliver() {
+		failedAttempts = 0;
+		context.submitDownstreamTask(this);
+	}
+
+	/**
+	 * @return how many times the processing of this event has failed so far, and
+	 *         was rescheduled.
+	 */
+	public int failedAttempts() {
+		return failedAttempts;
+	}
+
 	protected abstract void doRun();
 
+	private DeadLetterQueue.FailedEvent failedEvent() {
+		return new DeadLetterQueue.FailedEvent(getClass().getSimpleName(), event.key, context.projectGroupName());
+	}
+
+	/**
+	 * @return the key that determines which events must not be processed
+	 *         concurrently, i.e. events for the same downstream issue.
+	 */
+	public Object orderingKey() {
+		return event.key;
+	}
+
 	public abstract String toString();
 
 }
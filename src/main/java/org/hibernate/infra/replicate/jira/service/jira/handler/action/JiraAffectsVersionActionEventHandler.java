@@ -23,4 +23,9 @@ public class JiraAffectsVersionActionEventHandler extends JiraAbstractVersionAct
 		return issue.fields.versions;
 	}
 
+	@Override
+	protected String versionField() {
+		return "versions";
+	}
+
 }
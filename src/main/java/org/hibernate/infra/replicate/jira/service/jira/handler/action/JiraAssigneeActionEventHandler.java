@@ -1,5 +1,7 @@
 package org.hibernate.infra.replicate.jira.service.jira.handler.action;
 
+import java.util.List;
+
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
 import org.hibernate.infra.replicate.jira.service.jira.model.action.JiraActionEvent;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
@@ -8,6 +10,8 @@ import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
 
 public class JiraAssigneeActionEventHandler extends JiraActionEventHandler {
 
+	private static final List<String> ISSUE_FIELDS = List.of("assignee");
+
 	public JiraAssigneeActionEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context,
 			JiraActionEvent event) {
 		super(reportingConfig, context, event);
@@ -15,7 +19,7 @@ public class JiraAssigneeActionEventHandler extends JiraActionEventHandler {
 
 	@Override
 	protected void doRun() {
-		JiraIssue issue = context.destinationJiraClient().getIssue(event.key);
+		JiraIssue issue = context.destinationJiraClient().getIssue(event.key, ISSUE_FIELDS);
 
 		JiraUser user = null;
 		if (issue.fields.assignee != null) {
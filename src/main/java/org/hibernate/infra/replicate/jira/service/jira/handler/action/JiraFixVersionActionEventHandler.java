@@ -23,4 +23,9 @@ public class JiraFixVersionActionEventHandler extends JiraAbstractVersionActionE
 		return issue.fields.fixVersions;
 	}
 
+	@Override
+	protected String versionField() {
+		return "fixVersions";
+	}
+
 }
@@ -1,5 +1,6 @@
 package org.hibernate.infra.replicate.jira.service.jira.handler.action;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
@@ -15,6 +16,8 @@ import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
 
 public class JiraTransitionActionEventHandler extends JiraActionEventHandler {
 
+	private static final List<String> ISSUE_FIELDS = List.of("status");
+
 	public JiraTransitionActionEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context,
 			JiraActionEvent event) {
 		super(reportingConfig, context, event);
@@ -23,8 +26,8 @@ public class JiraTransitionActionEventHandler extends JiraActionEventHandler {
 	@Override
 	protected void doRun() {
 		String sourceKey = context.contextForProject(event.projectKey).toSourceKey(event.key);
-		JiraIssue issue = context.destinationJiraClient().getIssue(event.key);
-		JiraIssue sourceIssue = context.sourceJiraClient().getIssue(sourceKey);
+		JiraIssue issue = context.destinationJiraClient().getIssue(event.key, ISSUE_FIELDS);
+		JiraIssue sourceIssue = context.sourceJiraClient().getIssue(sourceKey, ISSUE_FIELDS);
 
 		String statusDownstream = issue.fields.status.name.toLowerCase(Locale.ROOT);
 		String statusCurrent = sourceIssue.fields.status.name.toLowerCase(Locale.ROOT);
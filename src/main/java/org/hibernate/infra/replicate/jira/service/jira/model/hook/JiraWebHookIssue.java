@@ -1,5 +1,42 @@
 package org.hibernate.infra.replicate.jira.service.jira.model.hook;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+
 public class JiraWebHookIssue extends JiraWebHookObject {
+	private static final DateTimeFormatter JIRA_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+
 	public String key;
+
+	/**
+	 * @return the time of the last update of the issue, if the payload has it. It
+	 *         is only used to tell that the issue has changed, and is not
+	 *         otherwise trusted.
+	 */
+	public Optional<ZonedDateTime> updated() {
+		if (!(properties().get("fields") instanceof Map<?, ?> fields)) {
+			return Optional.empty();
+		}
+		Object updated = fields.get("updated");
+		if (updated instanceof Number millis) {
+			return Optional.of(Instant.ofEpochMilli(millis.longValue()).atZone(ZoneOffset.UTC));
+		}
+		if (updated instanceof String value) {
+			try {
+				return Optional.of(ZonedDateTime.parse(value, JIRA_TIMESTAMP));
+			} catch (DateTimeParseException e) {
+				try {
+					return Optional.of(ZonedDateTime.parse(value));
+				} catch (DateTimeParseException ignored) {
+					return Optional.empty();
+				}
+			}
+		}
+		return Optional.empty();
+	}
 }
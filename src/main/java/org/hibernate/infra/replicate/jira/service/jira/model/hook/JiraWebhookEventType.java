@@ -8,6 +8,7 @@ import java.util.Optional;
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraCommentDeleteEventHandler;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraCommentUpsertEventHandler;
+import org.hibernate.infra.replicate.jira.service.jira.handler.JiraCommentsReconcileEventHandler;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraIssueDeleteEventHandler;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraIssueLinkDeleteEventHandler;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraIssueLinkUpsertEventHandler;
@@ -121,6 +122,21 @@ public enum JiraWebhookEventType {
 					.of(new JiraCommentDeleteEventHandler(reportingConfig, context, event.comment.id, event.issue.id));
 		}
 	},
+	/**
+	 * Not a Jira webhook event: used internally to sync all the comments of an
+	 * issue at once, when re-syncing the issue.
+	 */
+	COMMENTS_RECONCILE("replicate:comments_reconcile") {
+		@Override
+		public Collection<Runnable> handlers(ReportingConfig reportingConfig, JiraWebHookEvent event,
+				HandlerProjectGroupContext context) {
+			if (event.issue == null || event.issue.id == null) {
+				throw new IllegalStateException(
+						"Trying to handle a comment event but issue id is null: %s".formatted(event));
+			}
+			return List.of(new JiraCommentsReconcileEventHandler(reportingConfig, context, event.issue.id));
+		}
+	},
 	VERSION_CREATED("jira:version_created") {
 		@Override
 		public Collection<Runnable> handlers(ReportingConfig reportingConfig, JiraWebHookEvent event,
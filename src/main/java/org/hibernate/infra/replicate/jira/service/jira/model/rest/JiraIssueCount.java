@@ -0,0 +1,25 @@
+package org.hibernate.infra.replicate.jira.service.jira.model.rest;
+
+import org.hibernate.infra.replicate.jira.service.jira.model.JiraBaseObject;
+
+/**
+ * Both the request and the response of the approximate issue count: the query
+ * is sent, and the count is returned.
+ */
+public class JiraIssueCount extends JiraBaseObject {
+	public String jql;
+	public Long count;
+
+	public JiraIssueCount() {
+	}
+
+	public JiraIssueCount(String jql) {
+		this.jql = jql;
+	}
+
+	@Override
+	public String toString() {
+		return "JiraIssueCount{" + "jql='" + jql + '\'' + ", count=" + count + ", otherProperties=" + properties()
+				+ '}';
+	}
+}
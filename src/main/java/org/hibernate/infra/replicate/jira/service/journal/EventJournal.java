@@ -0,0 +1,83 @@
+package org.hibernate.infra.replicate.jira.service.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+
+/**
+ * An append-only log of the events that were acknowledged but not yet
+ * processed. Entries are appended once the event is accepted and marked as done
+ * once all the handlers of the event have finished. Entries that were not
+ * marked as done (e.g. because the app was restarted while they were still in
+ * the queue) can be replayed on the next start.
+ */
+public interface EventJournal extends AutoCloseable {
+
+	/**
+	 * A journal that does not store anything.
+	 */
+	EventJournal NONE = new EventJournal() {
+		@Override
+		public long append(byte[] payload) {
+			return -1L;
+		}
+
+		@Override
+		public void markDone(long id) {
+			// nothing to do
+		}
+
+		@Override
+		public List<Entry> pendingEntries() {
+			return List.of();
+		}
+
+		@Override
+		public int pendingCount() {
+			return 0;
+		}
+
+		@Override
+		public void close() {
+			// nothing to do
+		}
+	};
+
+	static EventJournal create(JiraConfig.Journal config, String name) {
+		if (!config.enabled()) {
+			return NONE;
+		}
+		try {
+			return new MappedEventJournal(config.directory().resolve(name),
+					Math.toIntExact(config.segmentSize().asLongValue()));
+		} catch (IOException e) {
+			throw new UncheckedIOException(
+					"Unable to open the event journal at %s: %s".formatted(config.directory(), e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * @return the id of the appended entry, to be passed to
+	 *         {@link #markDone(long)} once the event is processed, or a negative
+	 *         value if the entry was not stored.
+	 */
+	long append(byte[] payload);
+
+	void markDone(long id);
+
+	/**
+	 * @return the entries that were not yet marked as done, in the order they were
+	 *         appended.
+	 */
+	List<Entry> pendingEntries();
+
+	int pendingCount();
+
+	@Override
+	void close();
+
+	record Entry(long id, byte[] payload) {
+	}
+}
@@ -0,0 +1,324 @@
+package org.hibernate.infra.replicate.jira.service.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Journal that stores the entries in a sequence of memory-mapped segment files
+ * of a fixed size.
+ * <p>
+ * Each record in a segment has the following layout:
+ * {@code [length:int][type:byte][id:long][checksum:int][payload:byte[]]}, where
+ * the length is the size of the record without the length itself. The length
+ * is written last, so a record that was only partially written is
+ * seen as the end of the segment when the journal is read again. Marking an
+ * entry as done appends a {@code DONE} record, the segment files are never
+ * modified otherwise.
+ * <p>
+ * Once the current segment cannot take the next record, a new one is started.
+ * Records larger than a segment are not journaled at all. Old segments are
+ * removed as soon as all their entries are done. If only a small part of an old
+ * segment is still pending, these entries are copied to the current segment, so
+ * that a few slow events do not keep a lot of segments around.
+ * <p>
+ * Note: the journal relies on the OS to flush the memory-mapped pages, which
+ * means that the entries survive the restart of the app, but the latest ones may
+ * be lost if the whole machine crashes.
+ */
+final class MappedEventJournal implements EventJournal {
+
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".journal";
+	private static final byte EVENT = 1;
+	private static final byte DONE = 2;
+	private static final byte[] NO_PAYLOAD = new byte[0];
+	// length + type + id + checksum:
+	private static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES + Long.BYTES + Integer.BYTES;
+	// if less than a quarter of an old segment is still pending, we move the
+	// pending entries to the current segment and remove the old one:
+	private static final double COMPACTION_THRESHOLD = 0.25;
+
+	private final Path directory;
+	private final int segmentSize;
+	private final TreeMap<Long, Segment> segments = new TreeMap<>();
+	private final Map<Long, Segment> pendingEntries = new HashMap<>();
+	private Segment active;
+	private long nextId;
+	private boolean compacting;
+
+	MappedEventJournal(Path directory, int segmentSize) throws IOException {
+		if (segmentSize <= HEADER_SIZE) {
+			throw new IllegalArgumentException("Journal segment size is too small: %s".formatted(segmentSize));
+		}
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		Files.createDirectories(directory);
+		load();
+		if (active == null) {
+			active = createSegment(0L);
+		}
+		Log.infof("Opened the event journal at %s with %d pending entries in %d segment(s)", directory,
+				pendingEntries.size(), segments.size());
+	}
+
+	@Override
+	public synchronized long append(byte[] payload) {
+		if (HEADER_SIZE + payload.length > segmentSize) {
+			Log.warnf("Event of %d bytes does not fit into a journal segment and will not be journaled",
+					payload.length);
+			return -1L;
+		}
+		long id = nextId++;
+		write(EVENT, id, payload);
+		return id;
+	}
+
+	@Override
+	public synchronized void markDone(long id) {
+		if (id < 0) {
+			return;
+		}
+		Segment segment = pendingEntries.remove(id);
+		if (segment == null) {
+			return;
+		}
+		segment.pending.remove(id);
+		write(DONE, id, NO_PAYLOAD);
+		removeProcessedSegments();
+	}
+
+	@Override
+	public synchronized List<Entry> pendingEntries() {
+		List<Entry> entries = new ArrayList<>(pendingEntries.size());
+		for (Segment segment : segments.values()) {
+			for (var entry : segment.pending.entrySet()) {
+				entries.add(new Entry(entry.getKey(), segment.payload(entry.getValue())));
+			}
+		}
+		entries.sort((a, b) -> Long.compare(a.id(), b.id()));
+		return entries;
+	}
+
+	@Override
+	public synchronized int pendingCount() {
+		return pendingEntries.size();
+	}
+
+	@Override
+	public synchronized void close() {
+		active.buffer.force();
+	}
+
+	private void write(byte type, long id, byte[] payload) {
+		int recordSize = HEADER_SIZE + payload.length;
+		if (recordSize > segmentSize) {
+			throw new IllegalArgumentException(
+					"Journal record of %d bytes does not fit into a segment of %d bytes".formatted(recordSize,
+							segmentSize));
+		}
+		// the compaction that follows a rotation may fill the new segment with the
+		// pending entries of the older ones, leaving less room than the record needs:
+		while (active.buffer.remaining() < recordSize) {
+			rotate();
+		}
+		MappedByteBuffer buffer = active.buffer;
+		int offset = buffer.position();
+		buffer.position(offset + Integer.BYTES);
+		buffer.put(type).putLong(id).putInt(checksum(payload)).put(payload);
+		// the length goes last, so that a partially written record is not read back:
+		buffer.putInt(offset, recordSize - Integer.BYTES);
+		if (type == EVENT) {
+			active.pending.put(id, offset);
+			pendingEntries.put(id, active);
+		}
+	}
+
+	private void rotate() {
+		active.buffer.force();
+		active = createSegment(active.sequence + 1);
+		if (!compacting) {
+			compact();
+		}
+	}
+
+	private void compact() {
+		compacting = true;
+		try {
+			while (segments.size() > 1) {
+				Segment oldest = segments.firstEntry().getValue();
+				if (oldest == active) {
+					return;
+				}
+				if (!oldest.pending.isEmpty()) {
+					if (oldest.pendingBytes() > segmentSize * COMPACTION_THRESHOLD) {
+						return;
+					}
+					Log.infof("Moving %d pending journal entries from %s to %s", oldest.pending.size(), oldest.path,
+							active.path);
+					for (var entry : new TreeMap<>(oldest.pending).entrySet()) {
+						write(EVENT, entry.getKey(), oldest.payload(entry.getValue()));
+					}
+					oldest.pending.clear();
+				}
+				delete(oldest);
+			}
+		} finally {
+			compacting = false;
+		}
+	}
+
+	private void removeProcessedSegments() {
+		// we only remove the oldest segments, so that the DONE records, that are always
+		// written to the newer segments, are never removed before the entries they
+		// refer to:
+		while (segments.size() > 1) {
+			Segment oldest = segments.firstEntry().getValue();
+			if (oldest == active || !oldest.pending.isEmpty()) {
+				return;
+			}
+			delete(oldest);
+		}
+	}
+
+	private void delete(Segment segment) {
+		segments.remove(segment.sequence);
+		try {
+			Files.deleteIfExists(segment.path);
+		} catch (IOException e) {
+			Log.warnf(e, "Unable to remove the journal segment %s: %s", segment.path, e.getMessage());
+		}
+	}
+
+	private void load() throws IOException {
+		List<Path> files;
+		try (Stream<Path> list = Files.list(directory)) {
+			files = list.filter(MappedEventJournal::isSegment).sorted().toList();
+		}
+		for (Path file : files) {
+			Segment segment = mapSegment(sequence(file), file);
+			segments.put(segment.sequence, segment);
+			readSegment(segment);
+			active = segment;
+		}
+	}
+
+	private void readSegment(Segment segment) {
+		MappedByteBuffer buffer = segment.buffer;
+		int offset = 0;
+		while (offset + HEADER_SIZE <= buffer.capacity()) {
+			int length = buffer.getInt(offset);
+			if (length <= 0 || offset + Integer.BYTES + length > buffer.capacity()) {
+				// either the end of the written records or a partially written one:
+				break;
+			}
+			byte type = buffer.get(offset + Integer.BYTES);
+			long id = buffer.getLong(offset + Integer.BYTES + Byte.BYTES);
+			int checksum = buffer.getInt(offset + Integer.BYTES + Byte.BYTES + Long.BYTES);
+			byte[] payload = segment.payload(offset);
+			if (checksum != checksum(payload)) {
+				Log.warnf("Journal segment %s has a corrupted record at %d, ignoring the rest of the segment",
+						segment.path, offset);
+				break;
+			}
+			if (type == EVENT) {
+				// the entry may have been copied to a newer segment by the compaction:
+				Segment previous = pendingEntries.put(id, segment);
+				if (previous != null) {
+					previous.pending.remove(id);
+				}
+				segment.pending.put(id, offset);
+			} else if (type == DONE) {
+				Segment previous = pendingEntries.remove(id);
+				if (previous != null) {
+					previous.pending.remove(id);
+				}
+			}
+			nextId = Math.max(nextId, id + 1);
+			offset += Integer.BYTES + length;
+		}
+		buffer.position(offset);
+	}
+
+	private Segment createSegment(long sequence) {
+		Path path = directory.resolve("%s%019d%s".formatted(SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+		try {
+			Segment segment = mapSegment(sequence, path);
+			segments.put(sequence, segment);
+			return segment;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to create a journal segment %s: %s".formatted(path, e.getMessage()),
+					e);
+		}
+	}
+
+	private Segment mapSegment(long sequence, Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			return new Segment(sequence, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+		}
+	}
+
+	private static boolean isSegment(Path path) {
+		String name = path.getFileName().toString();
+		return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+	}
+
+	private static long sequence(Path path) {
+		String name = path.getFileName().toString();
+		return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	private static int checksum(byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		return (int) crc.getValue();
+	}
+
+	@Override
+	public String toString() {
+		return "MappedEventJournal[" + "directory=" + directory + ", segments=" + segments.size() + ", pending="
+				+ pendingEntries.size() + ']';
+	}
+
+	private static final class Segment {
+		private final long sequence;
+		private final Path path;
+		private final MappedByteBuffer buffer;
+		// entry id -> record offset
+		private final Map<Long, Integer> pending = new HashMap<>();
+
+		private Segment(long sequence, Path path, MappedByteBuffer buffer) {
+			this.sequence = sequence;
+			this.path = path;
+			this.buffer = buffer;
+		}
+
+		private byte[] payload(int offset) {
+			byte[] payload = new byte[buffer.getInt(offset) + Integer.BYTES - HEADER_SIZE];
+			buffer.get(offset + HEADER_SIZE, payload);
+			return payload;
+		}
+
+		private long pendingBytes() {
+			long bytes = 0;
+			for (int offset : pending.values()) {
+				bytes += Integer.BYTES + buffer.getInt(offset);
+			}
+			return bytes;
+		}
+	}
+}
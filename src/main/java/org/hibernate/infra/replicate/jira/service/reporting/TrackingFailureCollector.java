@@ -0,0 +1,69 @@
+package org.hibernate.infra.replicate.jira.service.reporting;
+
+import java.util.Optional;
+
+/**
+ * Passes the failures to another collector, while remembering the first
+ * critical one, so that the caller can tell whether the operation has failed.
+ * <p>
+ * The failures can be reported from multiple threads at once, e.g. by the steps
+ * of an event that are processed concurrently.
+ */
+public final class TrackingFailureCollector implements FailureCollector {
+
+	private final FailureCollector delegate;
+	private volatile String firstCritical;
+	private volatile Exception firstCriticalException;
+
+	public TrackingFailureCollector(FailureCollector delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public synchronized void warning(String details) {
+		delegate.warning(details);
+	}
+
+	@Override
+	public synchronized void warning(String details, Exception exception) {
+		delegate.warning(details, exception);
+	}
+
+	@Override
+	public synchronized void critical(String details) {
+		track(details, null);
+		delegate.critical(details);
+	}
+
+	@Override
+	public synchronized void critical(String details, Exception exception) {
+		track(details, exception);
+		delegate.critical(details, exception);
+	}
+
+	/**
+	 * @return the description of the first critical failure, if any were reported.
+	 */
+	public Optional<String> criticalFailure() {
+		return Optional.ofNullable(firstCritical);
+	}
+
+	/**
+	 * @return the exception of the first critical failure, if it came with one.
+	 */
+	public Optional<Exception> criticalException() {
+		return Optional.ofNullable(firstCriticalException);
+	}
+
+	private void track(String details, Exception exception) {
+		if (firstCritical == null) {
+			firstCritical = exception == null ? details : "%s: %s".formatted(details, exception.getMessage());
+			firstCriticalException = exception;
+		}
+	}
+
+	@Override
+	public void close() {
+		delegate.close();
+	}
+}
@@ -0,0 +1,116 @@
+package org.hibernate.infra.replicate.jira.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.mock.SampleJiraRestClient;
+import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestClient;
+import org.hibernate.infra.replicate.jira.service.jira.handler.JiraIssueUpsertEventHandler;
+import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.logging.Log;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+/**
+ * Compares the throughput of the event processing on platform and on virtual
+ * threads, when each call to the (mock) Jira REST API takes some time, as it
+ * would with the real Jira. Rate limiting is turned off, so that only the
+ * threads are the limit.
+ */
+@QuarkusTest
+@Disabled
+class EventProcessingBenchmarkTest {
+
+	private static final String PROJECT_GROUP_NAME = "hibernate";
+	private static final int EVENTS = 500;
+	private static final int PLATFORM_THREADS = 16;
+	private static final Duration LATENCY = Duration.ofMillis(50);
+
+	@Inject
+	SampleJiraRestClient jira;
+
+	@Inject
+	ReportingConfig reportingConfig;
+
+	@Inject
+	JiraConfig jiraConfig;
+
+	@Test
+	void platformThreads() throws InterruptedException {
+		Log.infof("Platform threads (%d): %s", PLATFORM_THREADS, run(false));
+	}
+
+	@Test
+	void virtualThreads() throws InterruptedException {
+		Log.infof("Virtual threads: %s", run(true));
+	}
+
+	private Duration run(boolean virtualThreads) throws InterruptedException {
+		JiraRestClient client = withLatency(jira);
+		HandlerProjectGroupContext context = new HandlerProjectGroupContext(PROJECT_GROUP_NAME,
+				withProcessing(jiraConfig.projectGroup().get(PROJECT_GROUP_NAME), virtualThreads), client, client);
+		try {
+			CountDownLatch done = new CountDownLatch(EVENTS);
+			long start = System.nanoTime();
+			for (long id = 1; id <= EVENTS; id++) {
+				JiraIssueUpsertEventHandler handler = new JiraIssueUpsertEventHandler(reportingConfig, context, id);
+				handler.whenCompleted(done::countDown);
+				context.submitTask(handler);
+			}
+			assertThat(done.await(10, TimeUnit.MINUTES)).isTrue();
+			return Duration.ofNanos(System.nanoTime() - start);
+		} finally {
+			context.close();
+		}
+	}
+
+	private static JiraRestClient withLatency(JiraRestClient delegate) {
+		return proxy(JiraRestClient.class, (proxy, method, args) -> {
+			Thread.sleep(LATENCY);
+			return invoke(delegate, method, args);
+		});
+	}
+
+	private static JiraConfig.JiraProjectGroup withProcessing(JiraConfig.JiraProjectGroup group,
+			boolean virtualThreads) {
+		JiraConfig.EventProcessing processing = proxy(JiraConfig.EventProcessing.class,
+				(proxy, method, args) -> switch (method.getName()) {
+					case "virtualThreads" -> virtualThreads;
+					case "threads" -> PLATFORM_THREADS;
+					case "queueSize" -> EVENTS * 2;
+					case "sustainedRate" -> Optional.of(1_000_000.0);
+					case "burst" -> Optional.of(1_000_000);
+					default -> invoke(group.processing(), method, args);
+				});
+		return proxy(JiraConfig.JiraProjectGroup.class, (proxy, method, args) -> "processing".equals(method.getName())
+				? processing
+				: invoke(group, method, args));
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+}
@@ -1,18 +1,36 @@
 package org.hibernate.infra.replicate.jira.handler;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.hibernate.infra.replicate.jira.JiraConfig;
 import org.hibernate.infra.replicate.jira.mock.SampleJiraRestClient;
+import org.hibernate.infra.replicate.jira.service.jira.EventPriority;
 import org.hibernate.infra.replicate.jira.service.jira.HandlerProjectGroupContext;
+import org.hibernate.infra.replicate.jira.service.jira.client.AdaptiveRateController;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestClientBuilder;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestException;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraCommentDeleteEventHandler;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraCommentUpsertEventHandler;
+import org.hibernate.infra.replicate.jira.service.jira.handler.JiraCommentsReconcileEventHandler;
+import org.hibernate.infra.replicate.jira.service.jira.handler.JiraEventHandler;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraIssueDeleteEventHandler;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraIssueLinkDeleteEventHandler;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraIssueLinkUpsertEventHandler;
 import org.hibernate.infra.replicate.jira.service.jira.handler.JiraIssueUpsertEventHandler;
+import org.hibernate.infra.replicate.jira.service.jira.handler.action.JiraAssigneeActionEventHandler;
+import org.hibernate.infra.replicate.jira.service.jira.handler.action.JiraTransitionActionEventHandler;
+import org.hibernate.infra.replicate.jira.service.jira.model.action.JiraActionEvent;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
 import org.hibernate.infra.replicate.jira.service.reporting.ReportingConfig;
 
@@ -23,6 +41,7 @@ import org.junit.jupiter.api.Test;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectSpy;
 import jakarta.inject.Inject;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 @QuarkusTest
@@ -49,6 +68,63 @@ class IssueTest {
 				source, destination);
 	}
 
+	/**
+	 * Keeps the lane of the events with the given ordering key busy until
+	 * released.
+	 */
+	private void blockLane(Long orderingKey, CountDownLatch release) throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		context.submitTask(new JiraEventHandler(reportingConfig, context, orderingKey) {
+			@Override
+			protected void doRun() {
+				started.countDown();
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			@Override
+			public String toString() {
+				return "BlockingEventHandler[" + objectId + "]";
+			}
+		});
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	private static JiraActionEvent actionEvent(String type) {
+		JiraActionEvent event = new JiraActionEvent();
+		event.id = "1";
+		event.key = "JIRATEST2-1";
+		event.projectKey = "JIRATEST1";
+		event.event = type;
+		return event;
+	}
+
+	private static AtomicInteger listenCompletion(JiraEventHandler handler, CountDownLatch completed) {
+		AtomicInteger count = new AtomicInteger();
+		handler.whenCompleted(() -> {
+			count.incrementAndGet();
+			completed.countDown();
+		});
+		return count;
+	}
+
+	/**
+	 * @return a context whose asynchronous clients retry the failed calls, as the
+	 *         REST clients do.
+	 */
+	private HandlerProjectGroupContext retryingContext() {
+		JiraConfig.JiraProjectGroup projectGroup = jiraConfig.projectGroup().get(PROJECT_GROUP_NAME);
+		AdaptiveRateController sourceRateController = new AdaptiveRateController("source");
+		AdaptiveRateController destinationRateController = new AdaptiveRateController("destination");
+		return new HandlerProjectGroupContext(PROJECT_GROUP_NAME, projectGroup, source, destination,
+				JiraRestClientBuilder.async(source, sourceRateController),
+				JiraRestClientBuilder.async(destination, destinationRateController), sourceRateController,
+				destinationRateController);
+	}
+
 	@AfterEach
 	void tearDown() {
 		context.close();
@@ -68,6 +144,141 @@ class IssueTest {
 		Mockito.verify(destination, Mockito.times(1)).transition(eq("JIRATEST2-1"), any());
 	}
 
+	@Test
+	void testUpsertSendsOnlyChangedFields() {
+		new JiraIssueUpsertEventHandler(reportingConfig, context, 1L).run();
+
+		// we expect that
+		// - only the fields that differ from the downstream issue are sent
+		ArgumentCaptor<JiraIssue> update = ArgumentCaptor.forClass(JiraIssue.class);
+		Mockito.verify(destination, Mockito.times(1)).update(eq("JIRATEST2-1"), update.capture());
+		assertThat(update.getValue().fields.description).startsWith("{quote}This issue is created as a copy of");
+		assertThat(update.getValue().fields.labels).contains("upstream-test");
+		assertThat(update.getValue().fields.summary).isNull();
+		assertThat(update.getValue().fields.assignee).isNull();
+		assertThat(update.getValue().fields.issuetype).isNull();
+	}
+
+	@Test
+	void testUpsertFetchesTheComparedFields() {
+		new JiraIssueUpsertEventHandler(reportingConfig, context, 1L).run();
+
+		// we expect that
+		// - the destination issue is fetched with all the fields the update is
+		// compared to, and the status for the transition
+		Mockito.verify(destination, Mockito.times(1)).getIssue(eq("JIRATEST2-1"),
+				argThat((List<String> fields) -> fields.containsAll(List.of("summary", "description", "labels",
+						"priority", "issuetype", "project", "assignee", "reporter", "fixVersions", "versions",
+						"status"))));
+	}
+
+	@Test
+	void testActionsFetchTheFieldsTheyRead() {
+		new JiraAssigneeActionEventHandler(reportingConfig, context, actionEvent("jira:assignee")).run();
+		new JiraTransitionActionEventHandler(reportingConfig, context, actionEvent("jira:transition")).run();
+
+		// we expect that
+		// - the assignee action fetches the assignee of the destination issue
+		// - the transition action fetches the status of both issues
+		Mockito.verify(destination, Mockito.times(1)).getIssue(eq("JIRATEST2-1"),
+				argThat((List<String> fields) -> fields.contains("assignee")));
+		Mockito.verify(destination, Mockito.times(1)).getIssue(eq("JIRATEST2-1"),
+				argThat((List<String> fields) -> fields.contains("status")));
+		Mockito.verify(source, Mockito.times(1)).getIssue(eq("JIRATEST1-1"),
+				argThat((List<String> fields) -> fields.contains("status")));
+	}
+
+	@Test
+	void testUpsertUnchangedIsSkipped() {
+		long issueId = 1L;
+		new JiraIssueUpsertEventHandler(reportingConfig, context, issueId).run();
+		new JiraIssueUpsertEventHandler(reportingConfig, context, issueId).run();
+
+		// we expect that
+		// - the downstream issue is updated once, as the second update would be the
+		// same as the first one
+		// - the other steps are still performed each time
+		Mockito.verify(destination, Mockito.times(1)).update(eq("JIRATEST2-1"), any(JiraIssue.class));
+		Mockito.verify(destination, Mockito.times(2)).transition(eq("JIRATEST2-1"), any());
+	}
+
+	@Test
+	void testUpsertStampsTheSyncedIssue() {
+		long issueId = 1L;
+		new JiraIssueUpsertEventHandler(reportingConfig, context, issueId).run();
+
+		// we expect that the synced version of the issue is remembered, so that the
+		// sweeps skip the issue until it is updated again:
+		ZonedDateTime updated = source.getIssue(issueId).fields.updated;
+		assertThat(context.syncedIssueStamps().current(issueId, updated)).isTrue();
+		assertThat(context.syncedIssueStamps().current(issueId, updated.plusSeconds(1))).isFalse();
+	}
+
+	@Test
+	void testUpsertFailedStepDoesNotStopOthers() {
+		Mockito.doThrow(new JiraRestException("Unable to add the remote link", 400, Map.of())).when(destination)
+				.upsertRemoteLink(eq("JIRATEST2-1"), any());
+
+		long issueId = 1L;
+		assertThatThrownBy(() -> new JiraIssueUpsertEventHandler(reportingConfig, context, issueId).run())
+				.isInstanceOf(RuntimeException.class).hasMessageContaining("upsert the remote link");
+
+		// the remote link failed, but the transition is still performed:
+		Mockito.verify(destination, Mockito.times(1)).update(eq("JIRATEST2-1"), any(JiraIssue.class));
+		Mockito.verify(destination, Mockito.times(1)).transition(eq("JIRATEST2-1"), any());
+	}
+
+	@Test
+	void testPendingUpsertsAreCoalesced() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		blockLane(1L, release);
+
+		TrackedUpsertEventHandler first = new TrackedUpsertEventHandler(reportingConfig, context, 1L);
+		TrackedUpsertEventHandler second = new TrackedUpsertEventHandler(reportingConfig, context, 1L);
+		CountDownLatch completed = new CountDownLatch(2);
+		AtomicInteger firstCompleted = listenCompletion(first, completed);
+		AtomicInteger secondCompleted = listenCompletion(second, completed);
+		context.submitTask(first, EventPriority.INTERACTIVE);
+		context.submitTask(second, EventPriority.INTERACTIVE);
+		release.countDown();
+
+		// we expect that
+		// - only the latest handler is executed, and the issue is updated once
+		// - both events are completed once, as the first one was folded into the second
+		assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(first.executed).hasValue(0);
+		assertThat(second.executed).hasValue(1);
+		assertThat(firstCompleted).hasValue(1);
+		assertThat(secondCompleted).hasValue(1);
+		Mockito.verify(destination, Mockito.times(1)).update(eq("JIRATEST2-1"), any(JiraIssue.class));
+	}
+
+	@Test
+	void testMoreUrgentUpsertSkipsThePendingOne() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		blockLane(1L, release);
+
+		TrackedUpsertEventHandler first = new TrackedUpsertEventHandler(reportingConfig, context, 1L);
+		TrackedUpsertEventHandler second = new TrackedUpsertEventHandler(reportingConfig, context, 1L);
+		CountDownLatch completed = new CountDownLatch(2);
+		AtomicInteger firstCompleted = listenCompletion(first, completed);
+		AtomicInteger secondCompleted = listenCompletion(second, completed);
+		context.submitTask(first, EventPriority.BULK);
+		context.submitTask(second, EventPriority.INTERACTIVE);
+		release.countDown();
+
+		// we expect that
+		// - the more urgent handler is queued on its own, and the stale queued one is
+		// skipped once its turn comes
+		// - both events are completed once
+		assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(first.executed).hasValue(0);
+		assertThat(second.executed).hasValue(1);
+		assertThat(firstCompleted).hasValue(1);
+		assertThat(secondCompleted).hasValue(1);
+		Mockito.verify(destination, Mockito.times(1)).update(eq("JIRATEST2-1"), any(JiraIssue.class));
+	}
+
 	@Test
 	void testRemoveExisting() {
 		long issueId = 1L;
@@ -114,6 +325,69 @@ class IssueTest {
 		Mockito.verify(destination, Mockito.times(1)).create(eq("JIRATEST2-2"), any());
 	}
 
+	@Test
+	void testUpdateCommentsThroughIndex() {
+		new JiraCommentUpsertEventHandler(reportingConfig, context, 123L, 2L).run();
+		new JiraCommentUpsertEventHandler(reportingConfig, context, 123L, 2L).run();
+
+		// we expect that
+		// - the destination comments are fetched once, to build the index
+		// - the already synced comment is then found in the index and updated
+		Mockito.verify(destination, Mockito.times(1)).getComments(eq("JIRATEST2-2"), eq(0), eq(5000));
+		Mockito.verify(destination, Mockito.times(2)).update(eq("JIRATEST2-2"), eq("123"), any());
+		Mockito.verify(destination, Mockito.never()).create(eq("JIRATEST2-2"), any());
+	}
+
+	@Test
+	void testReconcileComments() {
+		new JiraCommentsReconcileEventHandler(reportingConfig, context, 2L).run();
+
+		// we expect that
+		// - both comment lists are fetched once
+		// - the comment that was synced before is updated, as its content differs
+		// - nothing is created or removed
+		Mockito.verify(source, Mockito.times(1)).getComments(eq("JIRATEST1-2"), eq(0), eq(5000));
+		Mockito.verify(destination, Mockito.times(1)).getComments(eq("JIRATEST2-2"), eq(0), eq(5000));
+		Mockito.verify(destination, Mockito.times(1)).update(eq("JIRATEST2-2"), eq("123"), any());
+		Mockito.verify(destination, Mockito.never()).create(eq("JIRATEST2-2"), any());
+		Mockito.verify(destination, Mockito.never()).deleteComment(eq("JIRATEST2-2"), any());
+	}
+
+	@Test
+	void testFailedCommentIsRetriedLater() {
+		Mockito.doThrow(new JiraRestException("Service unavailable", 503, Map.of())).doCallRealMethod()
+				.when(destination).create(eq("JIRATEST2-2"), any());
+
+		try (HandlerProjectGroupContext retrying = retryingContext()) {
+			new JiraCommentUpsertEventHandler(reportingConfig, retrying, 1L, 2L).run();
+
+			// we expect that
+			// - the failed call is not retried in place by the client
+			// - the event is scheduled to be retried later instead
+			Mockito.verify(destination, Mockito.times(1)).create(eq("JIRATEST2-2"), any());
+			assertThat(retrying.retries().scheduled()).singleElement()
+					.satisfies(retry -> assertThat(retry.attempt()).isEqualTo(1));
+			assertThat(retrying.deadLetters().size()).isZero();
+		}
+	}
+
+	@Test
+	void testFailedReconcileIsRetriedLater() {
+		Mockito.doThrow(new JiraRestException("Service unavailable", 503, Map.of())).doCallRealMethod()
+				.when(destination).update(eq("JIRATEST2-2"), eq("123"), any());
+
+		try (HandlerProjectGroupContext retrying = retryingContext()) {
+			new JiraCommentsReconcileEventHandler(reportingConfig, retrying, 2L).run();
+
+			// we expect that
+			// - the failed update is not retried in place by the client
+			// - the event is scheduled to be retried later instead
+			Mockito.verify(destination, Mockito.times(1)).update(eq("JIRATEST2-2"), eq("123"), any());
+			assertThat(retrying.retries().scheduled()).hasSize(1);
+			assertThat(retrying.deadLetters().size()).isZero();
+		}
+	}
+
 	@Test
 	void testRemoveExistingComment() {
 		new JiraCommentDeleteEventHandler(reportingConfig, context, 1L, 2L).run();
@@ -180,4 +454,20 @@ class IssueTest {
 		Mockito.verify(destination, Mockito.times(1)).getIssue(eq("JIRATEST2-7"));
 		Mockito.verify(destination, Mockito.times(1)).deleteIssueLink(any());
 	}
+
+	private static class TrackedUpsertEventHandler extends JiraIssueUpsertEventHandler {
+
+		private final AtomicInteger executed = new AtomicInteger();
+
+		private TrackedUpsertEventHandler(ReportingConfig reportingConfig, HandlerProjectGroupContext context,
+				Long id) {
+			super(reportingConfig, context, id);
+		}
+
+		@Override
+		protected void doRun() {
+			executed.incrementAndGet();
+			super.doRun();
+		}
+	}
 }
@@ -16,6 +16,7 @@ import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraComments;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueBulk;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueBulkResponse;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueCount;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueLink;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueLinkTypes;
 import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueResponse;
@@ -31,6 +32,7 @@ import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraVersion;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
@@ -60,6 +62,16 @@ public class SampleJiraRestClient implements JiraRestClient {
 		return sample(id, jiraKey(id));
 	}
 
+	@Override
+	public JiraIssue getIssue(String key, List<String> fields) {
+		return withFields(getIssue(key), fields);
+	}
+
+	@Override
+	public JiraIssue getIssue(Long id, List<String> fields) {
+		return withFields(getIssue(id), fields);
+	}
+
 	@Override
 	public JiraIssueResponse create(JiraIssue issue) {
 		JiraIssueResponse response = new JiraIssueResponse();
@@ -195,6 +207,13 @@ public class SampleJiraRestClient implements JiraRestClient {
 		return issues;
 	}
 
+	@Override
+	public JiraIssueCount countIssues(JiraIssueCount query) {
+		JiraIssueCount count = new JiraIssueCount(query.jql);
+		count.count = 0L;
+		return count;
+	}
+
 	@Override
 	public void transition(String issueKey, JiraTransition transition) {
 		// do nothing
@@ -336,6 +355,25 @@ public class SampleJiraRestClient implements JiraRestClient {
 		}
 	}
 
+	/**
+	 * Like Jira, only returns the requested fields of the issue, so that a handler
+	 * reading a field it did not ask for gets what it would get from Jira.
+	 */
+	private JiraIssue withFields(JiraIssue issue, List<String> fields) {
+		if (fields.contains("*all")) {
+			return issue;
+		}
+		ObjectNode json = objectMapper.valueToTree(issue);
+		if (json.get("fields") instanceof ObjectNode issueFields) {
+			issueFields.retain(fields);
+		}
+		try {
+			return objectMapper.treeToValue(json, JiraIssue.class);
+		} catch (JsonProcessingException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	private JiraIssue sample(Long id, String key) {
 		try {
 			String projectKey = key.substring(0, key.lastIndexOf('-'));
@@ -0,0 +1,133 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.service.jira.client.JiraRestException;
+
+import org.junit.jupiter.api.Test;
+
+class DeadLetterQueueTest {
+
+	@Test
+	void failedEventIsRedelivered() throws InterruptedException {
+		CountDownLatch redelivered = new CountDownLatch(2);
+		try (DeadLetterQueue queue = new DeadLetterQueue("test", config(2, Duration.ofMillis(10)))) {
+			DeadLetterQueue.FailedEvent event = event("event");
+			DeadLetterQueue.Redelivery redelivery = new DeadLetterQueue.Redelivery(redelivered::countDown);
+			queue.add(event, "failure", true, redelivery);
+			assertThat(queue.list()).singleElement().satisfies(deadLetter -> {
+				assertThat(deadLetter.failure()).isEqualTo("failure");
+				assertThat(deadLetter.deliveries()).isEqualTo(1);
+			});
+			Thread.sleep(100);
+			queue.add(event, "another failure", true, redelivery);
+			assertThat(redelivered.await(10, TimeUnit.SECONDS)).isTrue();
+
+			// out of automatic redeliveries:
+			queue.add(event, "last failure", true, redelivery);
+			assertThat(queue.list()).singleElement().satisfies(deadLetter -> {
+				assertThat(deadLetter.deliveries()).isEqualTo(3);
+				assertThat(deadLetter.nextRedeliveryAt()).isNull();
+			});
+
+			queue.delivered(event, redelivery);
+			assertThat(queue.size()).isZero();
+		}
+	}
+
+	@Test
+	void failuresThatWouldHappenAgainAreNotRedelivered() {
+		AtomicInteger redelivered = new AtomicInteger();
+		try (DeadLetterQueue queue = new DeadLetterQueue("test", config(2, Duration.ofMillis(10)))) {
+			queue.add(event("event"), "invalid field", false,
+					new DeadLetterQueue.Redelivery(redelivered::incrementAndGet));
+			assertThat(queue.list()).singleElement().satisfies(deadLetter -> {
+				assertThat(deadLetter.transientFailure()).isFalse();
+				assertThat(deadLetter.nextRedeliveryAt()).isNull();
+			});
+
+			assertThat(queue.replayAll()).isEqualTo(1);
+			assertThat(redelivered).hasValue(1);
+		}
+	}
+
+	@Test
+	void failureClassification() {
+		assertThat(DeadLetterQueue.isTransient(new JiraRestException("unavailable", 503, Map.of()))).isTrue();
+		assertThat(DeadLetterQueue.isTransient(new JiraRestException("rate limited", 429, Map.of()))).isTrue();
+		assertThat(DeadLetterQueue.isTransient(
+				new IllegalStateException(new JiraRestException("unavailable", 502, Map.of())))).isTrue();
+		assertThat(DeadLetterQueue.isTransient(new JiraRestException("invalid", 400, Map.of()))).isFalse();
+		assertThat(DeadLetterQueue.isTransient(new NullPointerException())).isFalse();
+		assertThat(DeadLetterQueue.isTransient(null)).isFalse();
+	}
+
+	@Test
+	void newerEventSupersedesTheFailedOne() {
+		AtomicInteger discarded = new AtomicInteger();
+		try (DeadLetterQueue queue = new DeadLetterQueue("test", config(0, Duration.ofMinutes(5)))) {
+			DeadLetterQueue.FailedEvent event = event("event");
+			queue.add(event, "failure", true, new DeadLetterQueue.Redelivery(() -> {
+			}, discarded::incrementAndGet));
+
+			// another event for the same object was processed:
+			queue.delivered(event, new DeadLetterQueue.Redelivery(() -> {
+			}, discarded::incrementAndGet));
+			assertThat(discarded).hasValue(1);
+			assertThat(queue.size()).isZero();
+		}
+	}
+
+	@Test
+	void replayAndPurge() {
+		AtomicInteger replayed = new AtomicInteger();
+		AtomicInteger discarded = new AtomicInteger();
+		try (DeadLetterQueue queue = new DeadLetterQueue("test", config(0, Duration.ofMinutes(5)))) {
+			for (String key : List.of("first", "second")) {
+				queue.add(event(key), "failure", true,
+						new DeadLetterQueue.Redelivery(replayed::incrementAndGet, discarded::incrementAndGet));
+			}
+
+			assertThat(queue.replay(queue.list().get(0).id())).isTrue();
+			assertThat(replayed).hasValue(1);
+			assertThat(queue.replayAll()).isEqualTo(2);
+			assertThat(replayed).hasValue(3);
+
+			assertThat(queue.purge(queue.list().get(0).id())).isTrue();
+			assertThat(queue.purgeAll()).isEqualTo(1);
+			assertThat(discarded).hasValue(2);
+			assertThat(queue.size()).isZero();
+		}
+	}
+
+	private static DeadLetterQueue.FailedEvent event(String key) {
+		return new DeadLetterQueue.FailedEvent("TestEvent", key, "test");
+	}
+
+	private static JiraConfig.DeadLetters config(int redeliveries, Duration delay) {
+		return new JiraConfig.DeadLetters() {
+			@Override
+			public int capacity() {
+				return 10;
+			}
+
+			@Override
+			public int redeliveries() {
+				return redeliveries;
+			}
+
+			@Override
+			public Duration redeliveryDelay() {
+				return delay;
+			}
+		};
+	}
+}
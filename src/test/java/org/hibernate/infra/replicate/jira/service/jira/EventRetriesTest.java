@@ -0,0 +1,38 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class EventRetriesTest {
+
+	@Test
+	void delayGrowsWithAttempts() {
+		assertThat(EventRetries.delay(1)).isBetween(Duration.ofSeconds(1), Duration.ofSeconds(2));
+		assertThat(EventRetries.delay(3)).isBetween(Duration.ofSeconds(4), Duration.ofSeconds(8));
+		assertThat(EventRetries.delay(100)).isBetween(Duration.ofMinutes(2).plusSeconds(30), Duration.ofMinutes(5));
+	}
+
+	@Test
+	void scheduledRetryIsVisibleUntilResubmitted() throws InterruptedException {
+		EventRetries retries = new EventRetries("test-retries");
+		CountDownLatch resubmitted = new CountDownLatch(1);
+		try {
+			retries.schedule("event", 1, new IllegalStateException("failure"), resubmitted::countDown);
+
+			assertThat(retries.scheduled()).singleElement().satisfies(retry -> {
+				assertThat(retry.event()).isEqualTo("event");
+				assertThat(retry.attempt()).isEqualTo(1);
+				assertThat(retry.failure()).isEqualTo("failure");
+			});
+			assertThat(resubmitted.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(retries.scheduled()).isEmpty();
+		} finally {
+			retries.close();
+		}
+	}
+}
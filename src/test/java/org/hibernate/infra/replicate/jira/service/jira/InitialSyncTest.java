@@ -0,0 +1,122 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.mock.SampleJiraRestClient;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssueBulk;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssues;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import jakarta.inject.Inject;
+import org.mockito.Mockito;
+
+@QuarkusTest
+class InitialSyncTest {
+
+	private static final String PROJECT_GROUP_NAME = "hibernate";
+
+	@InjectSpy
+	SampleJiraRestClient jira;
+
+	@Inject
+	JiraConfig jiraConfig;
+
+	HandlerProjectGroupContext context;
+
+	@BeforeEach
+	void setUp() {
+		context = new HandlerProjectGroupContext(PROJECT_GROUP_NAME, jiraConfig.projectGroup().get(PROJECT_GROUP_NAME),
+				jira, jira);
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void queuesThePagesOfIssues() {
+		Mockito.doReturn(page(false, "next", "JIRATEST1-1", "JIRATEST1-2"), page(true, null, "JIRATEST1-3")).when(jira)
+				.find(argThat(query -> query.startsWith("project = JIRATEST1 ")), any(), anyInt(), anyList());
+
+		List<JiraIssue> synced = new ArrayList<>();
+		InitialSync job = new InitialSync(context, SyncJob.Checkpoint.initial("JIRATEST1", -1L), List.of("issuelinks"),
+				synced::add);
+		job.run();
+
+		// we expect that
+		// - all the issues of both pages are queued, in order
+		// - the second page is requested with the token of the first one
+		// - the placeholders are created upfront, for each page
+		assertThat(synced).extracting(issue -> issue.key).containsExactly("JIRATEST1-1", "JIRATEST1-2",
+				"JIRATEST1-3");
+		assertThat(job.status()).isEqualTo(SyncJob.Status.DONE);
+		assertThat(job.currentCheckpoint().processed()).isEqualTo(3L);
+		assertThat(job.currentCheckpoint().cursor()).isEqualTo("3");
+		Mockito.verify(jira, Mockito.times(1)).find(argThat(query -> query.startsWith("project = JIRATEST1 ")),
+				eq("next"), anyInt(), anyList());
+		Mockito.verify(jira, Mockito.atLeastOnce()).create(any(JiraIssueBulk.class));
+	}
+
+	@Test
+	void stopsAfterMaxToSync() {
+		Mockito.doReturn(page(true, null, "JIRATEST1-1", "JIRATEST1-2", "JIRATEST1-3")).when(jira)
+				.find(argThat(query -> query.startsWith("project = JIRATEST1 ")), any(), anyInt(), anyList());
+
+		List<JiraIssue> synced = new ArrayList<>();
+		new InitialSync(context, SyncJob.Checkpoint.initial("JIRATEST1", 2L), List.of("issuelinks"), synced::add)
+				.run();
+
+		assertThat(synced).extracting(issue -> issue.key).containsExactly("JIRATEST1-1", "JIRATEST1-2");
+	}
+
+	@Test
+	void resumesFromTheCheckpoint() {
+		Mockito.doReturn(page(true, null, "JIRATEST1-6")).when(jira)
+				.find(argThat(query -> query.startsWith("project = JIRATEST1 ")), any(), anyInt(), anyList());
+
+		// a job that was interrupted after queueing the issue number 5, out of at most
+		// 10 issues:
+		SyncJob.Checkpoint checkpoint = SyncJob.Checkpoint.initial("JIRATEST1", 10L).advance("5", 5L);
+		List<JiraIssue> synced = new ArrayList<>();
+		InitialSync job = new InitialSync(context, checkpoint, List.of("issuelinks"), synced::add);
+		job.run();
+
+		// we expect that the job continues after the issue from the checkpoint, rather
+		// than after the last synced destination issue:
+		assertThat(synced).extracting(issue -> issue.key).containsExactly("JIRATEST1-6");
+		Mockito.verify(jira).find(eq("project = JIRATEST1 and key > JIRATEST1-5 ORDER BY key ASC"), any(), anyInt(),
+				anyList());
+		assertThat(job.currentCheckpoint().processed()).isEqualTo(6L);
+		assertThat(job.remaining()).isZero();
+	}
+
+	private static JiraIssues page(boolean last, String nextPageToken, String... keys) {
+		JiraIssues issues = new JiraIssues();
+		issues.issues = new ArrayList<>();
+		for (String key : keys) {
+			JiraIssue issue = new JiraIssue();
+			issue.key = key;
+			issue.id = JiraIssue.keyToLong(key);
+			issues.issues.add(issue);
+		}
+		issues.isLast = last;
+		issues.nextPageToken = nextPageToken;
+		return issues;
+	}
+}
@@ -0,0 +1,131 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraFields;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
+
+import org.junit.jupiter.api.Test;
+
+class IssueCacheTest {
+
+	private static final ZonedDateTime UPDATED = ZonedDateTime.parse("2024-01-01T10:00:00Z");
+
+	@Test
+	void fullIssueServesAnyFields() {
+		IssueCache cache = new IssueCache(config(10));
+		List<List<String>> fetched = new ArrayList<>();
+		Function<List<String>, JiraIssue> fetch = fields -> {
+			fetched.add(fields);
+			return issue(1L, UPDATED);
+		};
+
+		JiraIssue issue = cache.get(1L, null, fetch);
+		assertThat(cache.get(1L, null, fetch)).isSameAs(issue);
+		assertThat(cache.get("JIRA-1", List.of("key"), fetch)).isSameAs(issue);
+
+		assertThat(fetched).hasSize(1);
+		assertThat(cache.stats().hits()).isEqualTo(2);
+		assertThat(cache.stats().misses()).isEqualTo(1);
+	}
+
+	@Test
+	void subsetIsFetchedWithTheUpdatedTimestamp() {
+		IssueCache cache = new IssueCache(config(10));
+		List<List<String>> fetched = new ArrayList<>();
+		Function<List<String>, JiraIssue> fetch = fields -> {
+			fetched.add(fields);
+			return issue(1L, UPDATED);
+		};
+
+		cache.get(1L, List.of("key"), fetch);
+		cache.get(1L, List.of("key"), fetch);
+		// a different subset is not served from the one we have:
+		cache.get(1L, List.of("status"), fetch);
+
+		assertThat(fetched).containsExactly(List.of("key", "updated"), List.of("status", "updated"));
+	}
+
+	@Test
+	void newerUpdateInvalidates() {
+		IssueCache cache = new IssueCache(config(10));
+		AtomicInteger fetches = new AtomicInteger();
+		Function<List<String>, JiraIssue> fetch = fields -> {
+			fetches.incrementAndGet();
+			return issue(1L, UPDATED);
+		};
+
+		cache.get(1L, null, fetch);
+		// the update we already have:
+		cache.updated(1L, "JIRA-1", UPDATED);
+		cache.get(1L, null, fetch);
+		assertThat(fetches).hasValue(1);
+
+		cache.updated(null, "JIRA-1", UPDATED.plusSeconds(1));
+		assertThat(cache.stats().invalidations()).isEqualTo(1);
+		// the issue fetched now is still the old one, e.g. a stale read, so it should
+		// not be cached:
+		cache.get(1L, null, fetch);
+		cache.get(1L, null, fetch);
+		assertThat(fetches).hasValue(3);
+		assertThat(cache.stats().size()).isZero();
+	}
+
+	@Test
+	void leastRecentlyUsedIsEvicted() {
+		IssueCache cache = new IssueCache(config(2));
+		AtomicInteger fetches = new AtomicInteger();
+		Function<Long, Function<List<String>, JiraIssue>> fetch = id -> fields -> {
+			fetches.incrementAndGet();
+			return issue(id, UPDATED);
+		};
+
+		cache.get(1L, null, fetch.apply(1L));
+		cache.get(2L, null, fetch.apply(2L));
+		cache.get(1L, null, fetch.apply(1L));
+		cache.get(3L, null, fetch.apply(3L));
+
+		assertThat(cache.stats().size()).isEqualTo(2);
+		assertThat(cache.stats().evictions()).isEqualTo(1);
+		cache.get(1L, null, fetch.apply(1L));
+		assertThat(fetches).hasValue(3);
+		cache.get(2L, null, fetch.apply(2L));
+		assertThat(fetches).hasValue(4);
+	}
+
+	private static JiraIssue issue(Long id, ZonedDateTime updated) {
+		JiraIssue issue = new JiraIssue();
+		issue.id = id;
+		issue.key = "JIRA-" + id;
+		issue.fields = new JiraFields();
+		issue.fields.updated = updated;
+		return issue;
+	}
+
+	private static JiraConfig.IssueCache config(int maxSize) {
+		return new JiraConfig.IssueCache() {
+			@Override
+			public boolean enabled() {
+				return true;
+			}
+
+			@Override
+			public int maxSize() {
+				return maxSize;
+			}
+
+			@Override
+			public Duration ttl() {
+				return Duration.ofMinutes(1);
+			}
+		};
+	}
+}
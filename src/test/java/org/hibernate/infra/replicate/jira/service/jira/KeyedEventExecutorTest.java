@@ -0,0 +1,170 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class KeyedEventExecutorTest {
+
+	@Test
+	void sameKeyIsExecutedInOrder() throws InterruptedException {
+		KeyedEventExecutor executor = new KeyedEventExecutor("test", 4, 1000,
+				Thread.ofPlatform().name("test-", 0).factory());
+		List<Integer> executed = new CopyOnWriteArrayList<>();
+		List<String> threads = new CopyOnWriteArrayList<>();
+		try {
+			for (int i = 0; i < 100; i++) {
+				int value = i;
+				executor.execute(42L, () -> {
+					executed.add(value);
+					threads.add(Thread.currentThread().getName());
+				});
+			}
+		} finally {
+			executor.shutdown();
+			assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		}
+
+		assertThat(executed).isSorted().hasSize(100);
+		assertThat(threads).containsOnly(threads.get(0));
+	}
+
+	@Test
+	void rejectsWhenFull() throws InterruptedException {
+		KeyedEventExecutor executor = new KeyedEventExecutor("test", 1, 2,
+				Thread.ofPlatform().name("test-", 0).factory());
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			executor.execute(null, () -> {
+				started.countDown();
+				await(release);
+			});
+			assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+			executor.execute(null, () -> {
+			});
+			executor.execute(null, () -> {
+			});
+			assertThat(executor.pending()).isEqualTo(2);
+			assertThatThrownBy(() -> executor.execute(null, () -> {
+			})).isInstanceOf(RejectedExecutionException.class);
+		} finally {
+			release.countDown();
+			executor.shutdown();
+			assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		}
+		assertThat(executor.pending()).isZero();
+	}
+
+	@Test
+	void reservedRoomIsAllOrNothing() throws InterruptedException {
+		KeyedEventExecutor executor = new KeyedEventExecutor("test", 1, 3,
+				Thread.ofPlatform().name("test-", 0).factory());
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			executor.execute(null, () -> {
+				started.countDown();
+				await(release);
+			});
+			assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+			executor.execute(null, () -> {
+			});
+
+			// not enough room for three more tasks, and none of them takes any room:
+			assertThatThrownBy(() -> executor.reserve(3)).isInstanceOf(RejectedExecutionException.class);
+			assertThat(executor.pending()).isEqualTo(1);
+
+			executor.reserve(2);
+			executor.execute(null, EventPriority.INTERACTIVE, () -> {
+			}, true);
+			assertThat(executor.pending()).isEqualTo(3);
+			executor.release(1);
+			assertThat(executor.pending()).isEqualTo(2);
+		} finally {
+			release.countDown();
+			executor.shutdown();
+			assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		}
+		assertThat(executor.pending()).isZero();
+	}
+
+	@Test
+	void interactiveTasksGoAheadOfBulkOnes() throws InterruptedException {
+		KeyedEventExecutor executor = new KeyedEventExecutor("test", 1, 1000,
+				Thread.ofPlatform().name("test-", 0).factory());
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<EventPriority> executed = new CopyOnWriteArrayList<>();
+		try {
+			executor.execute(null, () -> {
+				started.countDown();
+				await(release);
+			});
+			assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+			for (int i = 0; i < 9; i++) {
+				executor.execute(null, EventPriority.BULK, () -> executed.add(EventPriority.BULK));
+			}
+			for (int i = 0; i < 9; i++) {
+				executor.execute(null, EventPriority.INTERACTIVE, () -> executed.add(EventPriority.INTERACTIVE));
+			}
+		} finally {
+			release.countDown();
+			executor.shutdown();
+			assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		}
+
+		assertThat(executed).hasSize(18);
+		// interactive tasks get most of the turns, but bulk ones are not starved:
+		assertThat(executed.subList(0, 9)).containsOnlyOnce(EventPriority.BULK);
+	}
+
+	@Test
+	void sameKeyKeepsItsOrderWhateverThePriority() throws InterruptedException {
+		KeyedEventExecutor executor = new KeyedEventExecutor("test", 1, 1000,
+				Thread.ofPlatform().name("test-", 0).factory());
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> executed = new CopyOnWriteArrayList<>();
+		try {
+			executor.execute(1L, () -> {
+				started.countDown();
+				await(release);
+			});
+			assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+			executor.execute(2L, EventPriority.BULK, () -> executed.add("2-bulk"));
+			executor.execute(1L, EventPriority.BULK, () -> executed.add("1-bulk"));
+			executor.execute(1L, EventPriority.MANUAL, () -> executed.add("1-manual"));
+			executor.execute(3L, EventPriority.BULK, () -> executed.add("3-bulk"));
+			// a retry goes ahead of the tasks for the same key that were submitted since:
+			executor.executeFirst(2L, EventPriority.BULK, () -> executed.add("2-retried"));
+		} finally {
+			release.countDown();
+			executor.shutdown();
+			assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		}
+
+		assertThat(executed).hasSize(5).containsSubsequence("2-retried", "2-bulk");
+		// the key 1 goes first because of its manual task, but its bulk task still
+		// comes before it:
+		assertThat(executed.subList(0, 2)).containsExactly("1-bulk", "1-manual");
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
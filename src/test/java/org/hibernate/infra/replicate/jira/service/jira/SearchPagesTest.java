@@ -0,0 +1,91 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssues;
+
+import org.junit.jupiter.api.Test;
+
+class SearchPagesTest {
+
+	@Test
+	void nextPageIsFetchedAhead() throws InterruptedException {
+		List<String> requested = new CopyOnWriteArrayList<>();
+		CountDownLatch secondPageRequested = new CountDownLatch(1);
+		SearchPages.Search search = (token, pageSize) -> {
+			requested.add(String.valueOf(token));
+			if ("1".equals(token)) {
+				secondPageRequested.countDown();
+			}
+			return page(pageSize, token == null ? "1" : null);
+		};
+
+		try (SearchPages pages = new SearchPages(10, 100, Duration.ofSeconds(2), 1, null, search)) {
+			SearchPages.Page first = pages.next();
+			assertThat(first.token()).isNull();
+			// the second page is fetched while the first one is being processed:
+			assertThat(secondPageRequested.await(10, TimeUnit.SECONDS)).isTrue();
+
+			SearchPages.Page second = pages.next();
+			assertThat(second.token()).isEqualTo("1");
+			assertThat(pages.next()).isNull();
+			assertThat(pages.next()).isNull();
+		}
+		assertThat(requested).containsExactly("null", "1");
+	}
+
+	@Test
+	void pageSizeFollowsTheResponseTimes() throws InterruptedException {
+		List<Integer> pageSizes = new ArrayList<>();
+		SearchPages.Search search = (token, pageSize) -> {
+			pageSizes.add(pageSize);
+			// fast responses, but Jira caps the page at 150 issues:
+			return page(Math.min(pageSize, 150), pageSizes.size() < 5 ? "next" : null);
+		};
+
+		try (SearchPages pages = new SearchPages(50, 1000, Duration.ofSeconds(2), 0, null, search)) {
+			while (pages.next() != null) {
+				// nothing to do
+			}
+		}
+		// the page size doubles at most, and does not go above what Jira returns:
+		assertThat(pageSizes).containsExactly(50, 100, 200, 150, 150);
+	}
+
+	@Test
+	void failuresArePassedOn() throws InterruptedException {
+		SearchPages.Search search = (token, pageSize) -> {
+			if (token != null) {
+				throw new IllegalStateException("Search failed");
+			}
+			return page(pageSize, "next");
+		};
+
+		try (SearchPages pages = new SearchPages(10, 100, Duration.ofSeconds(2), 2, null, search)) {
+			assertThat(pages.next()).isNotNull();
+			assertThatThrownBy(pages::next).isInstanceOf(IllegalStateException.class)
+					.hasMessageContaining("Search failed");
+			assertThat(pages.next()).isNull();
+		}
+	}
+
+	private static JiraIssues page(int size, String nextPageToken) {
+		JiraIssues issues = new JiraIssues();
+		issues.issues = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			issues.issues.add(new JiraIssue());
+		}
+		issues.nextPageToken = nextPageToken;
+		issues.isLast = nextPageToken == null;
+		return issues;
+	}
+}
@@ -0,0 +1,50 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SyncJobsTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void checkpointsSurviveReopening() {
+		SyncJob.Checkpoint initial = SyncJob.Checkpoint.initial("JIRATEST1", -1L);
+		SyncJob.Checkpoint query = SyncJob.Checkpoint.query(SyncJob.Type.SIMPLE, "project = JIRATEST1", true, false);
+
+		SyncJobs jobs = new SyncJobs(directory);
+		jobs.checkpoint(initial);
+		jobs.checkpoint(initial.advance("42", 42L));
+		jobs.checkpoint(query.advance("token", 100L));
+
+		// only the latest checkpoint of each job is kept:
+		assertThat(new SyncJobs(directory).pendingCheckpoints()).containsExactlyInAnyOrder(initial.advance("42", 42L),
+				query.advance("token", 100L));
+	}
+
+	@Test
+	void unreadableCheckpointsAreIgnored() throws IOException {
+		SyncJob.Checkpoint initial = SyncJob.Checkpoint.initial("JIRATEST1", -1L);
+		SyncJobs jobs = new SyncJobs(directory);
+		jobs.checkpoint(initial);
+		Files.writeString(directory.resolve("broken.json"), "{\"id\":", StandardCharsets.UTF_8);
+
+		assertThat(jobs.pendingCheckpoints()).containsExactly(initial);
+	}
+
+	@Test
+	void nothingIsStoredWithoutDirectory() {
+		SyncJobs jobs = new SyncJobs(null);
+		jobs.checkpoint(SyncJob.Checkpoint.initial("JIRATEST1", -1L));
+
+		assertThat(jobs.pendingCheckpoints()).isEmpty();
+	}
+}
@@ -0,0 +1,69 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SyncWatermarksTest {
+
+	private static final Instant WATERMARK = Instant.parse("2024-01-01T10:00:00Z");
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void watermarksOnlyMoveForward() {
+		SyncWatermarks watermarks = new SyncWatermarks(null);
+		assertThat(watermarks.get("JIRATEST1")).isEmpty();
+
+		watermarks.advance("JIRATEST1", WATERMARK);
+		watermarks.advance("JIRATEST1", WATERMARK.minusSeconds(60));
+		assertThat(watermarks.get("JIRATEST1")).contains(WATERMARK);
+
+		watermarks.advance("JIRATEST1", WATERMARK.plusSeconds(60));
+		assertThat(watermarks.get("JIRATEST1")).contains(WATERMARK.plusSeconds(60));
+		assertThat(watermarks.get("JIRATEST2")).isEmpty();
+	}
+
+	@Test
+	void watermarksWaitForTheEventsOfThePages() {
+		SyncWatermarks watermarks = new SyncWatermarks(null);
+		SyncWatermarks.Run run = watermarks.start("JIRATEST1");
+
+		SyncWatermarks.Run.Page first = run.page(WATERMARK);
+		Runnable firstEvent = first.event();
+		first.queued();
+		SyncWatermarks.Run.Page second = run.page(WATERMARK.plusSeconds(60));
+		Runnable secondEvent = second.event();
+		second.queued();
+		run.finish(WATERMARK.plusSeconds(120));
+		assertThat(watermarks.get("JIRATEST1")).isEmpty();
+
+		// the second page is processed, but the first one is still pending:
+		secondEvent.run();
+		assertThat(watermarks.get("JIRATEST1")).isEmpty();
+
+		firstEvent.run();
+		firstEvent.run();
+		assertThat(watermarks.get("JIRATEST1")).contains(WATERMARK.plusSeconds(120));
+	}
+
+	@Test
+	void watermarksSurviveReopening() throws IOException {
+		Path file = directory.resolve("group").resolve("watermarks.properties");
+		new SyncWatermarks(file).advance("JIRATEST1", WATERMARK);
+		Files.writeString(file, "JIRATEST2=not a timestamp\n", StandardOpenOption.APPEND);
+
+		SyncWatermarks watermarks = new SyncWatermarks(file);
+		assertThat(watermarks.get("JIRATEST1")).contains(WATERMARK);
+		// invalid entries are ignored:
+		assertThat(watermarks.get("JIRATEST2")).isEmpty();
+	}
+}
@@ -0,0 +1,73 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+
+import org.hibernate.infra.replicate.jira.JiraConfig;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SyncedIssueStampsTest {
+
+	private static final ZonedDateTime UPDATED = ZonedDateTime.parse("2024-01-01T10:00:00Z");
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void onlyNewerUpdatesAreOutdated() {
+		SyncedIssueStamps stamps = new SyncedIssueStamps(config(true, 10), null);
+		assertThat(stamps.current(1L, UPDATED)).isFalse();
+
+		stamps.applied(1L, UPDATED);
+		assertThat(stamps.current(1L, UPDATED)).isTrue();
+		assertThat(stamps.current(1L, UPDATED.minusMinutes(1))).isTrue();
+		assertThat(stamps.current(1L, UPDATED.plusSeconds(1))).isFalse();
+		// a stamp never moves back:
+		stamps.applied(1L, UPDATED.minusMinutes(1));
+		assertThat(stamps.current(1L, UPDATED)).isTrue();
+		// the issues without a known update time are never skipped:
+		assertThat(stamps.current(1L, null)).isFalse();
+	}
+
+	@Test
+	void leastRecentlySyncedAreDropped() {
+		SyncedIssueStamps stamps = new SyncedIssueStamps(config(true, 2), null);
+		stamps.applied(1L, UPDATED);
+		stamps.applied(2L, UPDATED);
+		stamps.applied(1L, UPDATED.plusMinutes(1));
+		stamps.applied(3L, UPDATED);
+
+		assertThat(stamps.size()).isEqualTo(2);
+		assertThat(stamps.current(1L, UPDATED)).isTrue();
+		assertThat(stamps.current(2L, UPDATED)).isFalse();
+	}
+
+	@Test
+	void stampsSurviveReopening() {
+		Path file = directory.resolve("group").resolve("synced-issues.bin");
+		SyncedIssueStamps stamps = new SyncedIssueStamps(config(true, 10), file);
+		stamps.applied(1L, UPDATED);
+		stamps.close();
+
+		assertThat(new SyncedIssueStamps(config(true, 10), file).current(1L, UPDATED)).isTrue();
+		assertThat(new SyncedIssueStamps(config(false, 10), file).current(1L, UPDATED)).isFalse();
+	}
+
+	private static JiraConfig.SyncedIssueStamps config(boolean enabled, int maxSize) {
+		return new JiraConfig.SyncedIssueStamps() {
+			@Override
+			public boolean enabled() {
+				return enabled;
+			}
+
+			@Override
+			public int maxSize() {
+				return maxSize;
+			}
+		};
+	}
+}
@@ -0,0 +1,36 @@
+package org.hibernate.infra.replicate.jira.service.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+	@Test
+	void burstIsAvailableRightAway() throws InterruptedException {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1.0, 3);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.waitTime()).isZero();
+			limiter.acquire();
+		}
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+		// the bucket is empty now:
+		assertThat(limiter.waitTime()).isGreaterThan(Duration.ofMillis(500)).isLessThanOrEqualTo(Duration.ofSeconds(1));
+	}
+
+	@Test
+	void tokensAreHandedOutAtSustainedRate() throws InterruptedException {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(50.0, 1);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 11; i++) {
+			limiter.acquire();
+		}
+		// first one is free, the other 10 are 20ms apart:
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(190));
+	}
+}
@@ -0,0 +1,45 @@
+package org.hibernate.infra.replicate.jira.service.jira.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveRateControllerTest {
+
+	@Test
+	void tooManyRequests() {
+		AdaptiveRateController controller = new AdaptiveRateController("test");
+
+		controller.onRateLimited(new JiraRestException("rate limited", 429, Map.of("retry-after", List.of("10"))));
+
+		assertThat(controller.rateFactor()).isEqualTo(0.5);
+		assertThat(controller.pauseTime()).isGreaterThan(Duration.ofSeconds(8))
+				.isLessThanOrEqualTo(Duration.ofSeconds(10));
+	}
+
+	@Test
+	void recoversAfterQuotaIsBack() {
+		AdaptiveRateController controller = new AdaptiveRateController("test");
+
+		controller.onResponse(Map.of("X-RateLimit-Remaining", "5", "X-RateLimit-Limit", "100")::get);
+		assertThat(controller.rateFactor()).isEqualTo(0.5);
+
+		for (int i = 0; i < 100; i++) {
+			controller.onResponse(Map.of("X-RateLimit-Remaining", "90", "X-RateLimit-Limit", "100")::get);
+		}
+		assertThat(controller.rateFactor()).isEqualTo(1.0);
+		assertThat(controller.pauseTime()).isZero();
+	}
+
+	@Test
+	void headerTimes() {
+		assertThat(AdaptiveRateController.time("2030-01-01T10:15Z")).isPresent();
+		assertThat(AdaptiveRateController.time("Tue, 1 Jan 2030 10:15:00 GMT")).isPresent();
+		assertThat(AdaptiveRateController.time("30")).isPresent();
+		assertThat(AdaptiveRateController.time("soon")).isEmpty();
+	}
+}
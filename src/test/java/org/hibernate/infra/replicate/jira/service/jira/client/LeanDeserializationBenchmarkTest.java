@@ -0,0 +1,118 @@
+package org.hibernate.infra.replicate.jira.service.jira.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import org.jboss.logging.Logger;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Compares the allocations and the retained heap of reading an issue with a few
+ * hundred custom fields, as the issues of a real Jira instance have, with and
+ * without the lean deserialization.
+ */
+@Disabled
+class LeanDeserializationBenchmarkTest {
+
+	private static final Logger LOG = Logger.getLogger(LeanDeserializationBenchmarkTest.class);
+
+	private static final int CUSTOM_FIELDS = 400;
+	private static final int WARMUP = 2_000;
+	private static final int ISSUES = 5_000;
+	private static final String EPIC_LABEL_FIELD = "customfield_10011";
+
+	private static final ObjectMapper MAPPER = JsonMapper.builder()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).build();
+
+	@Test
+	void leanDeserialization() throws IOException {
+		byte[] json = MAPPER.writeValueAsBytes(issue());
+		ObjectMapper lean = LeanDeserialization.objectMapper(MAPPER, Set.of(EPIC_LABEL_FIELD));
+
+		LOG.infof("Issue JSON: %d KB", json.length / 1024);
+		LOG.infof("Default: %s", measure(MAPPER, json));
+		LOG.infof("Lean: %s", measure(lean, json));
+	}
+
+	private static Result measure(ObjectMapper mapper, byte[] json) throws IOException {
+		for (int i = 0; i < WARMUP; i++) {
+			mapper.readValue(json, JiraIssue.class);
+		}
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long id = Thread.currentThread().threadId();
+		long heapBefore = usedHeap();
+		long allocatedBefore = threads.getThreadAllocatedBytes(id);
+		long start = System.nanoTime();
+
+		List<JiraIssue> issues = new ArrayList<>(ISSUES);
+		for (int i = 0; i < ISSUES; i++) {
+			issues.add(mapper.readValue(json, JiraIssue.class));
+		}
+
+		long time = System.nanoTime() - start;
+		long allocated = threads.getThreadAllocatedBytes(id) - allocatedBefore;
+		long retained = usedHeap() - heapBefore;
+		assertThat(issues).allSatisfy(issue -> assertThat(issue.fields.properties()).containsKey(EPIC_LABEL_FIELD));
+		return new Result(allocated / ISSUES, retained / ISSUES, time / ISSUES / 1_000);
+	}
+
+	private static long usedHeap() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * An issue shaped like the ones of the Hibernate Jira: a handful of mapped
+	 * fields, and hundreds of custom fields of all kinds, most of them empty.
+	 */
+	private static Map<String, Object> issue() {
+		Map<String, Object> fields = new LinkedHashMap<>();
+		fields.put("summary", "Some issue summary that is reasonably long to look like a real one");
+		fields.put("description", "A description. ".repeat(100));
+		fields.put("issuetype", Map.of("id", "10000", "name", "Epic", "subtask", false, "self",
+				"https://hibernate.atlassian.net/rest/api/2/issuetype/10000"));
+		fields.put("labels", List.of("label1", "label2"));
+		fields.put(EPIC_LABEL_FIELD, "Epic label");
+		for (int i = 0; i < CUSTOM_FIELDS; i++) {
+			String name = "customfield_%d".formatted(10100 + i);
+			switch (i % 4) {
+				case 0 -> fields.put(name, null);
+				case 1 -> fields.put(name, "Some value of the custom field %d".formatted(i));
+				case 2 -> fields.put(name,
+						Map.of("self", "https://hibernate.atlassian.net/rest/api/2/customFieldOption/" + i, "value",
+								"Option " + i, "id", Integer.toString(i)));
+				default -> fields.put(name,
+						List.of(Map.of("id", i, "name", "Item " + i), Map.of("id", i + 1, "name", "Item " + (i + 1))));
+			}
+		}
+		Map<String, Object> issue = new LinkedHashMap<>();
+		issue.put("expand", "renderedFields,names,schema,operations,editmeta,changelog,versionedRepresentations");
+		issue.put("id", "10001");
+		issue.put("self", "https://hibernate.atlassian.net/rest/api/2/issue/10001");
+		issue.put("key", "JIRATEST1-1");
+		issue.put("fields", fields);
+		return issue;
+	}
+
+	private record Result(long allocatedBytesPerIssue, long retainedBytesPerIssue, long microsPerIssue) {
+	}
+}
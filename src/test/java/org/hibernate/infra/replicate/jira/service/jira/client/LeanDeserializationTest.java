@@ -0,0 +1,66 @@
+package org.hibernate.infra.replicate.jira.service.jira.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.hibernate.infra.replicate.jira.service.jira.model.rest.JiraIssue;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+class LeanDeserializationTest {
+
+	private static final String ISSUE = """
+			{
+			  "id": "10001",
+			  "key": "JIRATEST1-1",
+			  "expand": "renderedFields,names",
+			  "fields": {
+			    "summary": "Some issue",
+			    "issuetype": { "id": "3", "name": "Epic", "subtask": false },
+			    "assignee": { "accountId": "user123", "name": "someone" },
+			    "labels": [ "label" ],
+			    "customfield_10010": "Epic label",
+			    "customfield_10020": { "value": "something", "children": [ { "id": 1 }, { "id": 2 } ] },
+			    "customfield_10030": [ "a", "b", "c" ],
+			    "customfield_10040": null
+			  }
+			}
+			""";
+
+	private static final ObjectMapper MAPPER = JsonMapper.builder()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).build();
+
+	@Test
+	void keepsOnlyTheRequestedIssueProperties() throws IOException {
+		ObjectMapper lean = LeanDeserialization.objectMapper(MAPPER, Set.of("customfield_10010"));
+
+		JiraIssue issue = lean.readValue(ISSUE, JiraIssue.class);
+
+		assertThat(issue.key).isEqualTo("JIRATEST1-1");
+		assertThat(issue.properties()).isEmpty();
+		assertThat(issue.fields.summary).isEqualTo("Some issue");
+		assertThat(issue.fields.labels).containsExactly("label");
+		assertThat(issue.fields.properties()).containsOnlyKeys("customfield_10010")
+				.containsEntry("customfield_10010", "Epic label");
+		// the other objects keep everything:
+		assertThat(issue.fields.issuetype.properties()).containsEntry("subtask", false);
+		assertThat(issue.fields.assignee.mappedIdentifier("name")).isEqualTo("someone");
+	}
+
+	@Test
+	void writesTheSameWay() throws IOException {
+		ObjectMapper lean = LeanDeserialization.objectMapper(MAPPER, Set.of());
+		JiraIssue issue = new JiraIssue();
+		issue.key = "JIRATEST1-1";
+		issue.properties().put("customfield_10010", "Epic label");
+
+		assertThat(lean.writeValueAsString(issue)).isEqualTo(MAPPER.writeValueAsString(issue));
+		assertThat(MAPPER.readValue(ISSUE, JiraIssue.class).fields.properties()).hasSize(4);
+	}
+}
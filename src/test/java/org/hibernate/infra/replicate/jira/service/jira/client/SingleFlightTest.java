@@ -0,0 +1,106 @@
+package org.hibernate.infra.replicate.jira.service.jira.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+
+class SingleFlightTest {
+
+	@Test
+	void concurrentCallsShareTheResult() throws Exception {
+		SingleFlight singleFlight = new SingleFlight();
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				results.add(executor.submit(() -> singleFlight.execute(() -> {
+					calls.incrementAndGet();
+					await(release);
+					return "issue";
+				}, "getIssue", 1L)));
+			}
+			// wait for everyone to join the call that is in flight:
+			Thread.sleep(200);
+			release.countDown();
+			for (Future<String> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("issue");
+			}
+		}
+		assertThat(calls).hasValue(1);
+		assertThat(singleFlight.inFlight()).isZero();
+
+		// a different resource, or the same one once the call is completed, is fetched
+		// again:
+		singleFlight.execute(calls::incrementAndGet, "getIssue", 2L);
+		singleFlight.execute(calls::incrementAndGet, "getIssue", 1L);
+		assertThat(calls).hasValue(3);
+	}
+
+	@Test
+	void failuresAreNotShared() throws Exception {
+		SingleFlight singleFlight = new SingleFlight();
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<String> failing = executor.submit(() -> singleFlight.execute(() -> {
+				calls.incrementAndGet();
+				await(release);
+				throw new JiraRestException("failed", 500, Map.of());
+			}, "getIssue", 1L));
+			Thread.sleep(100);
+			Future<String> waiting = executor.submit(() -> singleFlight.execute(() -> {
+				calls.incrementAndGet();
+				return "issue";
+			}, "getIssue", 1L));
+			Thread.sleep(100);
+			release.countDown();
+
+			assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo("issue");
+			assertThat(failing).failsWithin(Duration.ofSeconds(5));
+		}
+		assertThat(calls).hasValue(2);
+	}
+
+	@Test
+	void concurrentAsyncCallsShareTheResult() {
+		SingleFlight singleFlight = new SingleFlight();
+		AtomicInteger calls = new AtomicInteger();
+
+		List<Uni<String>> unis = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			unis.add(singleFlight.executeAsync(() -> Uni.createFrom().item(() -> {
+				calls.incrementAndGet();
+				return "issue";
+			}).onItem().delayIt().by(Duration.ofMillis(200)), "getIssue", 1L));
+		}
+		List<String> results = Uni.join().all(unis).andFailFast().await().atMost(Duration.ofSeconds(5));
+
+		assertThat(results).hasSize(10).containsOnly("issue");
+		assertThat(calls).hasValue(1);
+		assertThat(singleFlight.inFlight()).isZero();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package org.hibernate.infra.replicate.jira.service.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedEventJournalTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void pendingEntriesSurviveReopening() throws IOException {
+		long first;
+		long third;
+		try (MappedEventJournal journal = new MappedEventJournal(directory, 1024)) {
+			first = journal.append(bytes("first"));
+			long second = journal.append(bytes("second"));
+			third = journal.append(bytes("third"));
+			journal.markDone(second);
+		}
+
+		try (MappedEventJournal journal = new MappedEventJournal(directory, 1024)) {
+			assertThat(journal.pendingEntries()).extracting(EventJournal.Entry::id).containsExactly(first, third);
+			assertThat(new String(journal.pendingEntries().get(1).payload(), StandardCharsets.UTF_8))
+					.isEqualTo("third");
+			// ids keep growing after reopening:
+			assertThat(journal.append(bytes("fourth"))).isGreaterThan(third);
+		}
+	}
+
+	@Test
+	void processedSegmentsAreRemoved() throws IOException {
+		try (MappedEventJournal journal = new MappedEventJournal(directory, 256)) {
+			List<Long> ids = new ArrayList<>();
+			for (int i = 0; i < 50; i++) {
+				ids.add(journal.append(bytes("event-" + i)));
+			}
+			assertThat(segments()).hasSizeGreaterThan(1);
+
+			ids.forEach(journal::markDone);
+			// only the current one is left:
+			assertThat(segments()).hasSize(1);
+			assertThat(journal.pendingCount()).isZero();
+		}
+		try (MappedEventJournal journal = new MappedEventJournal(directory, 256)) {
+			assertThat(journal.pendingEntries()).isEmpty();
+		}
+	}
+
+	@Test
+	void fewPendingEntriesAreMovedToNewerSegments() throws IOException {
+		long slow;
+		try (MappedEventJournal journal = new MappedEventJournal(directory, 256)) {
+			slow = journal.append(bytes("slow"));
+			for (int i = 0; i < 50; i++) {
+				journal.markDone(journal.append(bytes("event-" + i)));
+			}
+			// the slow entry does not keep all the old segments around:
+			assertThat(segments()).hasSizeLessThanOrEqualTo(2);
+			assertThat(journal.pendingEntries()).extracting(EventJournal.Entry::id).containsExactly(slow);
+		}
+		try (MappedEventJournal journal = new MappedEventJournal(directory, 256)) {
+			assertThat(journal.pendingEntries()).extracting(EventJournal.Entry::id).containsExactly(slow);
+			journal.markDone(slow);
+			assertThat(journal.pendingCount()).isZero();
+		}
+	}
+
+	@Test
+	void recordsLargerThanTheRoomLeftByCompactionGoToAnotherSegment() throws IOException {
+		List<Long> pending = new ArrayList<>();
+		long large;
+		try (MappedEventJournal journal = new MappedEventJournal(directory, 256)) {
+			// two segments, each with a small entry and a larger one:
+			pending.add(journal.append(new byte[40]));
+			long done = journal.append(new byte[100]);
+			long alsoDone = journal.append(new byte[100]);
+			pending.add(journal.append(new byte[40]));
+			pending.add(journal.append(new byte[100]));
+			journal.markDone(done);
+			journal.markDone(alsoDone);
+
+			// starting a new segment moves the two small entries there, which leaves less
+			// room than this record needs:
+			large = journal.append(new byte[200]);
+			pending.add(large);
+			assertThat(journal.pendingEntries()).extracting(EventJournal.Entry::id)
+					.containsExactlyElementsOf(pending);
+			// and a record that can never fit is refused right away:
+			assertThat(journal.append(new byte[256])).isNegative();
+		}
+		try (MappedEventJournal journal = new MappedEventJournal(directory, 256)) {
+			assertThat(journal.pendingEntries()).extracting(EventJournal.Entry::id)
+					.containsExactlyElementsOf(pending);
+			assertThat(journal.pendingEntries().get(pending.size() - 1).payload()).hasSize(200);
+		}
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> list = Files.list(directory)) {
+			return list.toList();
+		}
+	}
+}